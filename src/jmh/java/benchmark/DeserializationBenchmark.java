@@ -0,0 +1,52 @@
+package benchmark;
+
+import excel.report.dto.Suite;
+import excel.report.dto.Test;
+import helper.Page;
+import helper.PageReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON to Suite/Test deserialization of a page
+ * <p>
+ * Includes the classification of the suites, their type and normalized status are derived by Suite's constructor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializationBenchmark {
+    private byte[] suites;
+    private byte[] tests;
+
+    @Setup
+    public void setUp() {
+        this.suites = Fixtures.read(Fixtures.SUITES);
+        this.tests = Fixtures.read(Fixtures.TESTS);
+    }
+
+    @Benchmark
+    public Page<Suite> suites() throws IOException {
+        return PageReader.read(new ByteArrayInputStream(this.suites), Suite.class);
+    }
+
+    @Benchmark
+    public Page<Test> tests() throws IOException {
+        return PageReader.read(new ByteArrayInputStream(this.tests), Test.class);
+    }
+}
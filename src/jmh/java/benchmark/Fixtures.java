@@ -0,0 +1,52 @@
+package benchmark;
+
+import helper.ExcelHelper;
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Report Portal responses as JSON fixtures, the benchmarks run offline
+ * <p>
+ * The fixtures are synthetic pages in the shape of Report Portal's responses, not recorded from a server
+ */
+class Fixtures {
+    static final String SUITES = "fixtures/suites.json";
+    static final String TESTS = "fixtures/tests.json";
+
+    private static final String TEMPLATE_FILE = "report-template/ExcelTemplate.xlsx";
+
+    @SneakyThrows
+    static byte[] read(String fixture) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(fixture)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Get the report template, read once
+     */
+    static byte[] template() {
+        return ExcelHelper.readTemplate(Paths.get(TEMPLATE_FILE));
+    }
+
+    /**
+     * Copy the report template to a temp file
+     */
+    @SneakyThrows
+    static String copyTemplate() {
+        Path report = Files.createTempFile("benchmark", ".xlsx");
+        Files.copy(Paths.get(TEMPLATE_FILE), report, StandardCopyOption.REPLACE_EXISTING);
+        report.toFile().deleteOnExit();
+        return report.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import enums.DefinedCellStyle;
+import helper.ExcelHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createRowWithFormat throughput of an in-memory (XSSF) vs a streaming (SXSSF) workbook
+ * <p>
+ * Every invocation writes a batch of rows into a new workbook, the in-memory sheet doesn't grow over the iteration
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowWriteBenchmark {
+    static final String SHEET_NAME = "Benchmark";
+    static final List<String> ROW = Arrays.asList(
+        "Checkout NON-CR 001", "FAILED", "40", "37", "2", "1", "FAILED: Known bug JIRA-1\nSKIPPED: Environment timeout"
+    );
+    private static final int ROWS = 1000;
+    static final List<DefinedCellStyle> STYLES = Arrays.asList(
+        DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.TOP_ALIGN, DefinedCellStyle.BORDER_ALL
+    );
+
+    /**
+     * Row window of the workbook, 0 for XSSF
+     */
+    @Param({"0", "100"})
+    public int rowWindow;
+
+    private String reportFile;
+    private ExcelHelper excelHelper;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.reportFile = Fixtures.copyTemplate();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        this.excelHelper = new ExcelHelper(this.reportFile, Fixtures.template(), this.rowWindow);
+        this.excelHelper.createSheet(SHEET_NAME);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        this.excelHelper.saveAndClose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void createRowWithFormat() {
+        for (int rowIdx = 0; rowIdx < ROWS; rowIdx++) {
+            this.excelHelper.createRowWithFormat(SHEET_NAME, rowIdx, 1, ROW, STYLES);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import helper.ExcelHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saveAndClose serialization of a sheet of written rows
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SaveBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    /**
+     * Row window of the workbook, 0 for XSSF
+     */
+    @Param({"0", "100"})
+    public int rowWindow;
+
+    private ExcelHelper excelHelper;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        this.excelHelper = new ExcelHelper(Fixtures.copyTemplate(), this.rowWindow);
+        this.excelHelper.createSheet(RowWriteBenchmark.SHEET_NAME);
+        for (int rowIdx = 0; rowIdx < this.rows; rowIdx++) {
+            this.excelHelper.createRowWithFormat(
+                RowWriteBenchmark.SHEET_NAME, rowIdx, 1, RowWriteBenchmark.ROW, RowWriteBenchmark.STYLES
+            );
+        }
+    }
+
+    @Benchmark
+    public void saveAndClose() throws IOException {
+        this.excelHelper.saveAndClose();
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import enums.DefinedCellStyle;
+import helper.ExcelHelper;
+import org.apache.poi.ss.usermodel.Cell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Style lookup and assignment of a cell, the way every written cell is styled
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StyleBenchmark {
+    private static final List<List<DefinedCellStyle>> STYLES = Arrays.asList(
+        Arrays.asList(DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.TOP_ALIGN, DefinedCellStyle.BORDER_ALL),
+        Arrays.asList(DefinedCellStyle.SET_COLOR_LIGHT_GREEN, DefinedCellStyle.ALIGN_CENTER,
+            DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.BORDER_ALL),
+        Arrays.asList(DefinedCellStyle.BORDER_ALL, DefinedCellStyle.WRAP_TEXT)
+    );
+
+    private ExcelHelper excelHelper;
+    private Cell cell;
+    private int styleIdx;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.excelHelper = new ExcelHelper(Fixtures.copyTemplate());
+        this.excelHelper.createSheet(RowWriteBenchmark.SHEET_NAME);
+        this.cell = this.excelHelper.getSheet(this.excelHelper.getNumberOfSheets() - 1).createRow(0).createCell(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        this.excelHelper.saveAndClose();
+    }
+
+    @Benchmark
+    public void setCellStyle() {
+        this.excelHelper.setCellStyle(this.cell, STYLES.get(this.styleIdx++ % STYLES.size()));
+    }
+}
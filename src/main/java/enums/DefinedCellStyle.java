@@ -2,5 +2,5 @@ package enums;
 
 public enum DefinedCellStyle {
     WRAP_TEXT, ALIGN_CENTER, BORDER_ALL, SET_COLOR_LIGHT_GREEN, SET_COLOR_LIGHT_BLUE,
-    FORMAT_AS_TEXT, TOP_ALIGN
+    FORMAT_AS_TEXT, TOP_ALIGN, SET_COLOR_RED, SET_COLOR_GREEN, SET_COLOR_BLUE_GREY, LINK
 }
@@ -0,0 +1,33 @@
+package enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+@Getter
+@AllArgsConstructor
+public enum IssueType {
+    PRODUCT_BUG("pb", "Product Bug"),
+    AUTOMATION_BUG("ab", "Automation Bug"),
+    SYSTEM_ISSUE("si", "System Issue"),
+    NO_DEFECT("nd", "No Defect"),
+    TO_INVESTIGATE("ti", "To Investigate");
+
+    private final String prefix;
+    private final String title;
+
+    /**
+     * Get the title of an issue type locator e.g. Automation Bug of ab001
+     *
+     * @return Title or the locator itself when it isn't a known type
+     */
+    public static String getTitle(String locator) {
+        if (locator == null) return "";
+        return Arrays.stream(values())
+            .filter(e -> locator.toLowerCase().startsWith(e.prefix))
+            .map(e -> e.title)
+            .findFirst()
+            .orElse(locator);
+    }
+}
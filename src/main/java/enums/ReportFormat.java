@@ -0,0 +1,19 @@
+package enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ReportFormat {
+    // Excel workbook from the template
+    XLSX("xlsx"),
+    // A CSV file per sheet
+    CSV("csv"),
+    // A JSON object per row
+    JSONL("jsonl"),
+    // A static page with a table per sheet
+    HTML("html");
+
+    private final String extension;
+}
@@ -0,0 +1,8 @@
+package enums;
+
+public enum StatusFormat {
+    // Conditional formatting rules of the status column
+    RULES,
+    // Fill styles chosen by status when the rows are written
+    STYLES
+}
@@ -0,0 +1,21 @@
+package enums;
+
+public enum TestStatus {
+    PASSED, FAILED, SKIPPED, INTERRUPTED, STOPPED, CANCELLED, IN_PROGRESS, INFO, WARN,
+    // A status unknown to this version of the report
+    UNKNOWN;
+
+    /**
+     * Get the status of Report Portal's status name
+     *
+     * @return Status or UNKNOWN
+     */
+    public static TestStatus of(String name) {
+        if (name == null) return UNKNOWN;
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN;
+        }
+    }
+}
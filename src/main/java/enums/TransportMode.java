@@ -0,0 +1,10 @@
+package enums;
+
+public enum TransportMode {
+    // Requests go to Report Portal
+    LIVE,
+    // Requests go to Report Portal and their responses are saved to the archive
+    RECORD,
+    // Responses are read from the archive, Report Portal isn't called
+    REPLAY
+}
@@ -0,0 +1,26 @@
+package excel.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Column of a sheet of a report
+ */
+@Getter
+@AllArgsConstructor
+class Column {
+    enum Type {
+        TEXT,
+        // Status of a suite or a test, colored by its StatusColor
+        STATUS,
+        // URL, written as a link
+        LINK,
+        // Whole number e.g. a count or a duration, empty when there's none
+        NUMBER
+    }
+
+    private final String title;
+    // Width in characters
+    private final int width;
+    private final Type type;
+}
@@ -0,0 +1,112 @@
+package excel.report;
+
+import helper.FileHelper;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * CSV files of a report, a file per sheet e.g. output/FeaturesResult-Non-CR.csv of output/FeaturesResult.csv
+ * <p>
+ * The rows are written as they arrive, RFC 4180 quoted. A file replaces the previous one once the report is complete.
+ */
+class CsvSink implements ReportSink {
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Path file;
+    private final Map<String, SheetFile> sheetFiles = new LinkedHashMap<>();
+
+    /**
+     * @param file Report file e.g. output/FeaturesResult.csv, the name of the files of the sheets
+     */
+    CsvSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    @SneakyThrows
+    public void createSheet(String sheetName, int position, List<Column> columns) {
+        String fileName = this.file.getFileName().toString();
+        int extensionIdx = fileName.lastIndexOf('.');
+        Path sheetFile = this.file.resolveSibling(extensionIdx < 0
+            ? fileName + "-" + sheetName
+            : fileName.substring(0, extensionIdx) + "-" + sheetName + fileName.substring(extensionIdx));
+        Path tempFile = FileHelper.createTempFile(sheetFile);
+        SheetFile previous = this.sheetFiles.put(sheetName,
+            new SheetFile(sheetFile, tempFile, Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)));
+        if (previous != null) {
+            previous.writer.close();
+            Files.deleteIfExists(previous.tempFile);
+        }
+        this.writeLine(sheetName, columns.stream().map(Column::getTitle).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void openSheet(String sheetName, List<Column> columns) {
+        this.createSheet(sheetName, -1, columns);
+    }
+
+    @Override
+    public void writeRow(String sheetName, int rowIdx, List<String> values, int level) {
+        this.writeLine(sheetName, values);
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return false;
+    }
+
+    @Override
+    @SneakyThrows
+    public void save() {
+        for (SheetFile sheetFile : this.sheetFiles.values()) {
+            sheetFile.writer.close();
+            FileHelper.replace(sheetFile.tempFile, sheetFile.file);
+        }
+        System.out.printf("Created %d CSV files of %s%n", this.sheetFiles.size(), this.file);
+    }
+
+    @Override
+    public void discard() {
+        for (SheetFile sheetFile : this.sheetFiles.values()) {
+            try {
+                sheetFile.writer.close();
+            } catch (IOException ignored) {
+            }
+            FileHelper.deleteTempFile(sheetFile.tempFile);
+        }
+    }
+
+    @SneakyThrows
+    private void writeLine(String sheetName, List<String> values) {
+        Writer writer = this.sheetFiles.get(sheetName).writer;
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(escape(values.get(i)));
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @AllArgsConstructor
+    private static class SheetFile {
+        Path file;
+        Path tempFile;
+        Writer writer;
+    }
+}
@@ -0,0 +1,57 @@
+package excel.report;
+
+import enums.IssueType;
+import excel.report.dto.Suite;
+import excel.report.dto.Test;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rows of the Details sheet
+ * <p>
+ * A suite row is followed by the rows of its tests
+ */
+class DetailsRow {
+
+    private DetailsRow() {
+    }
+
+    static List<String> toList(Suite suite) {
+        return Arrays.asList(suite.getName(), "", suite.getStatus().name(), "", "", "", "");
+    }
+
+    /**
+     * @param url Link of the test in Report Portal
+     */
+    static List<String> toList(Suite suite, Test test, String url) {
+        return Arrays.asList(suite.getName(), test.getName(), test.getStatus().name(),
+            String.valueOf(test.getDuration()),
+            test.hasIssue() ? IssueType.getTitle(test.getIssueType()) : "",
+            test.getIssueComment() == null ? "" : test.getIssueComment(),
+            url
+        );
+    }
+
+    @AllArgsConstructor
+    enum Header {
+        SUITE("Suite", 40, Column.Type.TEXT),
+        TEST("Test", 60, Column.Type.TEXT),
+        STATUS("Status", 15, Column.Type.STATUS),
+        DURATION("Duration (ms)", 15, Column.Type.NUMBER),
+        ISSUE_TYPE("Issue type", 18, Column.Type.TEXT),
+        COMMENT("Comment", 50, Column.Type.TEXT),
+        LINK("Link", 10, Column.Type.LINK);
+
+        String title;
+        Integer width;
+        Column.Type type;
+
+        static List<Column> columns() {
+            return Arrays.stream(Header.values()).map(h -> new Column(h.title, h.width, h.type))
+                .collect(Collectors.toList());
+        }
+    }
+}
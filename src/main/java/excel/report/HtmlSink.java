@@ -0,0 +1,162 @@
+package excel.report;
+
+import helper.FileHelper;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Static HTML page of a report, a table per sheet
+ * <p>
+ * The rows are written as they arrive, the statuses have the colors of the Excel report. The file replaces the previous
+ * one once the report is complete.
+ */
+class HtmlSink implements ReportSink {
+    private static final String STYLE = "body{font-family:sans-serif}"
+        + "table{border-collapse:collapse;margin-bottom:2em}"
+        + "th{background:#CCFFCC}"
+        + "th,td{border:1px solid #999;padding:2px 6px;vertical-align:top;white-space:pre-wrap}"
+        + "tr.grouped td:first-child{padding-left:2em}";
+
+    private final Path file;
+    private final Path tempFile;
+    private final Writer writer;
+    // Columns of the sheets in the order they're created
+    private final Map<String, List<Column>> columnsBySheet = new LinkedHashMap<>();
+    private final Set<String> writtenSheetNames = new HashSet<>();
+    private String currentSheetName;
+    private List<Column> currentColumns;
+
+    /**
+     * @param title Title of the page e.g. Launch 875
+     */
+    @SneakyThrows
+    HtmlSink(Path file, String title) {
+        this.file = file;
+        this.tempFile = FileHelper.createTempFile(file);
+        this.writer = Files.newBufferedWriter(this.tempFile, StandardCharsets.UTF_8);
+        this.writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>" + escape(title)
+            + "</title>\n<style>" + STYLE + "</style>\n</head>\n<body>\n<h1>" + escape(title) + "</h1>\n");
+    }
+
+    @Override
+    public void createSheet(String sheetName, int position, List<Column> columns) {
+        this.columnsBySheet.put(sheetName, columns);
+    }
+
+    @Override
+    public void openSheet(String sheetName, List<Column> columns) {
+        this.columnsBySheet.put(sheetName, columns);
+    }
+
+    @Override
+    @SneakyThrows
+    public void writeRow(String sheetName, int rowIdx, List<String> values, int level) {
+        if (!sheetName.equals(this.currentSheetName)) this.startTable(sheetName);
+        this.writer.write(level > 0 ? "<tr class=\"grouped\">" : "<tr>");
+        for (int i = 0; i < this.currentColumns.size(); i++) {
+            String value = values.get(i) == null ? "" : values.get(i);
+            switch (this.currentColumns.get(i).getType()) {
+                case STATUS:
+                    StatusColor statusColor = StatusColor.of(value);
+                    this.writer.write(statusColor == null
+                        ? "<td>"
+                        : "<td style=\"background:" + statusColor.getHtmlColor() + "\">");
+                    this.writer.write(escape(value));
+                    break;
+                case LINK:
+                    this.writer.write("<td>");
+                    if (!value.isEmpty()) this.writer.write("<a href=\"" + escape(value) + "\">Open</a>");
+                    break;
+                default:
+                    this.writer.write("<td>");
+                    this.writer.write(escape(value));
+            }
+            this.writer.write("</td>");
+        }
+        this.writer.write("</tr>\n");
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return false;
+    }
+
+    @Override
+    @SneakyThrows
+    public void save() {
+        this.endTable();
+        // Sheets without rows
+        for (String sheetName : this.columnsBySheet.keySet()) {
+            if (this.writtenSheetNames.contains(sheetName)) continue;
+            this.startTable(sheetName);
+            this.endTable();
+        }
+        this.writer.write("</body>\n</html>\n");
+        this.writer.close();
+        FileHelper.replace(this.tempFile, this.file);
+        System.out.printf("Created %s%n", this.file);
+    }
+
+    @Override
+    public void discard() {
+        try {
+            this.writer.close();
+        } catch (IOException ignored) {
+        }
+        FileHelper.deleteTempFile(this.tempFile);
+    }
+
+    @SneakyThrows
+    private void startTable(String sheetName) {
+        this.endTable();
+        this.currentSheetName = sheetName;
+        this.currentColumns = this.columnsBySheet.get(sheetName);
+        this.writtenSheetNames.add(sheetName);
+        this.writer.write("<h2>" + escape(sheetName) + "</h2>\n<table>\n<tr>");
+        for (Column column : this.currentColumns) {
+            this.writer.write("<th style=\"min-width:" + column.getWidth() / 2 + "em\">" + escape(column.getTitle())
+                + "</th>");
+        }
+        this.writer.write("</tr>\n");
+    }
+
+    @SneakyThrows
+    private void endTable() {
+        if (this.currentSheetName == null) return;
+        this.writer.write("</table>\n");
+        this.currentSheetName = null;
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package excel.report;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import excel.report.dto.Suite;
+import helper.FileHelper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.SneakyThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of a report kept between incremental runs
+ * <p>
+ * Keeps the row of every written suite and the last modified time of the most recently modified suite or test, which
+ * is where the next run starts syncing from
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+class IncrementalState {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private String launchId;
+    private long syncedAt;
+    // Suites by id
+    private Map<Integer, SuiteState> suites = new HashMap<>();
+
+    IncrementalState(String launchId) {
+        this.launchId = launchId;
+    }
+
+    /**
+     * Load the state of a report
+     *
+     * @return State or null when the report has no state
+     */
+    @SneakyThrows
+    static IncrementalState load(Path stateFile) {
+        if (!Files.exists(stateFile)) return null;
+        return MAPPER.readValue(stateFile.toFile(), IncrementalState.class);
+    }
+
+    /**
+     * Save the state, the state file is replaced atomically like the report
+     */
+    @SneakyThrows
+    void save(Path stateFile) {
+        Path tempFile = FileHelper.createTempFile(stateFile);
+        try {
+            MAPPER.writeValue(tempFile.toFile(), this);
+            FileHelper.replace(tempFile, stateFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Record the row written for a suite, sheets written at the same time record their rows concurrently
+     */
+    synchronized void put(Suite suite, String sheetName, int rowIdx) {
+        this.suites.put(suite.getId(), new SuiteState(sheetName, rowIdx));
+        this.sync(suite.getLastModified());
+    }
+
+    /**
+     * Record a modification seen by this run, the next run syncs from the most recent one
+     *
+     * @param lastModified Last modified time of a suite or test
+     */
+    synchronized void sync(long lastModified) {
+        this.syncedAt = Math.max(this.syncedAt, lastModified);
+    }
+
+    /**
+     * Get the row of a suite, a suite not written yet gets the row after the last row of its sheet
+     *
+     * @param sheetName   Sheet of a new suite
+     * @param startRowIdx Row of the first suite of an empty sheet
+     */
+    synchronized SuiteState locate(Suite suite, String sheetName, int startRowIdx) {
+        SuiteState suiteState = this.suites.get(suite.getId());
+        if (suiteState == null) {
+            suiteState = new SuiteState(sheetName, this.getNextRowIdx(sheetName, startRowIdx));
+            this.suites.put(suite.getId(), suiteState);
+        }
+        return suiteState;
+    }
+
+    /**
+     * Get the index of the row after the last written row of a sheet
+     */
+    private int getNextRowIdx(String sheetName, int startRowIdx) {
+        return this.suites.values().stream()
+            .filter(e -> e.getSheetName().equals(sheetName))
+            .mapToInt(e -> e.getRowIdx() + 1)
+            .max()
+            .orElse(startRowIdx);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class SuiteState {
+        private String sheetName;
+        private int rowIdx;
+    }
+}
@@ -0,0 +1,89 @@
+package excel.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import helper.FileHelper;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Lines file of a report, a JSON object per row
+ * <p>
+ * e.g. {"sheet":"Non-CR","Feature":"Checkout NON-CR 001","Status":"FAILED","Total":35,...}, the values of number
+ * columns are written as numbers, or null when they're empty. The file replaces the previous one once the report is complete.
+ */
+class JsonLinesSink implements ReportSink {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Path file;
+    private final Path tempFile;
+    private final JsonGenerator generator;
+    private final Map<String, List<Column>> columnsBySheet = new HashMap<>();
+    private long rowCount;
+
+    @SneakyThrows
+    JsonLinesSink(Path file) {
+        this.file = file;
+        this.tempFile = FileHelper.createTempFile(file);
+        this.generator = JSON_FACTORY.createGenerator(Files.newBufferedWriter(this.tempFile, StandardCharsets.UTF_8));
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void createSheet(String sheetName, int position, List<Column> columns) {
+        this.columnsBySheet.put(sheetName, columns);
+    }
+
+    @Override
+    public void openSheet(String sheetName, List<Column> columns) {
+        this.columnsBySheet.put(sheetName, columns);
+    }
+
+    @Override
+    @SneakyThrows
+    public void writeRow(String sheetName, int rowIdx, List<String> values, int level) {
+        List<Column> columns = this.columnsBySheet.get(sheetName);
+        this.generator.writeStartObject();
+        this.generator.writeStringField("sheet", sheetName);
+        for (int i = 0; i < columns.size(); i++) {
+            String value = values.get(i);
+            this.generator.writeFieldName(columns.get(i).getTitle());
+            if (columns.get(i).getType() != Column.Type.NUMBER) this.generator.writeString(value);
+            else if (value == null || value.isEmpty()) this.generator.writeNull();
+            else this.generator.writeNumber(Long.parseLong(value));
+        }
+        this.generator.writeEndObject();
+        this.rowCount++;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return false;
+    }
+
+    @Override
+    @SneakyThrows
+    public void save() {
+        if (this.rowCount > 0) this.generator.writeRaw('\n');
+        this.generator.close();
+        FileHelper.replace(this.tempFile, this.file);
+        System.out.printf("Created %d rows in %s%n", this.rowCount, this.file);
+    }
+
+    @Override
+    public void discard() {
+        try {
+            this.generator.close();
+        } catch (IOException ignored) {
+        }
+        FileHelper.deleteTempFile(this.tempFile);
+    }
+}
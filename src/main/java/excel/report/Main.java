@@ -1,25 +1,118 @@
 package excel.report;
 
-import helper.Constants;
+import helper.APIHelper;
+import helper.Config;
+import helper.Metrics;
+import helper.ThreadHelper;
 import lombok.SneakyThrows;
 import lombok.val;
-import org.apache.commons.io.FileUtils;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Main {
 
     public static void main(String[] args) {
-        val rp2Excel = new RP2Excel();
-        rp2Excel.generate(getOutputFile());
+        val config = Config.getDefault();
+        try (val apiHelper = new APIHelper(config)) {
+            val launchIds = args.length > 0 ? String.join(",", args) : config.getLaunchIds();
+            if (launchIds != null) generateBatch(config, apiHelper, parseLaunchIds(launchIds));
+            else new RP2Excel(config, apiHelper, config.getLaunchId()).generate(getOutputFile(config));
+            // The recording of a failed run doesn't replace the previous one
+            apiHelper.commit();
+        } finally {
+            Metrics.printSummary(System.out);
+            if (config.getMetricsFile() != null && !config.getMetricsFile().isEmpty())
+                Metrics.writeJson(Paths.get(System.getProperty("user.dir"), config.getMetricsFile()));
+        }
     }
 
+    /**
+     * Generate reports of many launches in this JVM
+     * <p>
+     * The launches share the Report Portal client and the template, at most batch.concurrency launches are
+     * generated at the same time. A failed launch doesn't stop the others.
+     *
+     * @param launchIds Launch ids
+     */
     @SneakyThrows
-    private static String getOutputFile() {
-        val pwd = System.getProperty("user.dir");
-        val templateFile = Paths.get(pwd, Constants.REPORT_TEMPLATE_FILE);
-        val outputFile = Paths.get(pwd, Constants.REPORT_FILE);
-        FileUtils.copyFile(templateFile.toFile(), outputFile.toFile());
+    private static void generateBatch(Config config, APIHelper apiHelper, List<String> launchIds) {
+        ExecutorService batchPool = Executors.newFixedThreadPool(
+            config.getBatchConcurrency(), ThreadHelper.daemonThreadFactory("rp-batch")
+        );
+
+        Map<String, Future<?>> reports = new LinkedHashMap<>();
+        for (String launchId : launchIds) {
+            reports.put(launchId, batchPool.submit(() -> {
+                val rp2Excel = new RP2Excel(config, apiHelper, launchId);
+                rp2Excel.generate(getOutputFile(config, launchId));
+                System.out.println("Generated report of launch " + launchId);
+            }));
+        }
+
+        List<String> failedLaunchIds = new ArrayList<>();
+        for (Map.Entry<String, Future<?>> report : reports.entrySet()) {
+            try {
+                report.getValue().get();
+            } catch (ExecutionException e) {
+                System.err.println("Failed to generate report of launch " + report.getKey() + ": " + e.getCause());
+                failedLaunchIds.add(report.getKey());
+            }
+        }
+        batchPool.shutdown();
+        if (!failedLaunchIds.isEmpty())
+            throw new IllegalStateException("Failed to generate reports of launches " + failedLaunchIds);
+    }
+
+    /**
+     * Parse launch ids
+     *
+     * @param launchIds List and/or ranges e.g. 875,880-885
+     * @return Launch ids e.g. 875, 880, 881, 882, 883, 884, 885
+     */
+    static List<String> parseLaunchIds(String launchIds) {
+        List<String> ids = new ArrayList<>();
+        for (String part : launchIds.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                ids.add(part);
+                continue;
+            }
+            int from = Integer.parseInt(part.substring(0, dash).trim());
+            int to = Integer.parseInt(part.substring(dash + 1).trim());
+            for (int id = from; id <= to; id++) ids.add(String.valueOf(id));
+        }
+        return ids;
+    }
+
+    /**
+     * Get the report file with the extension of report.format e.g. output/FeaturesResult.csv
+     */
+    private static String getOutputFile(Config config) {
+        return getOutputFile(config, "");
+    }
+
+    /**
+     * Get the report file of a launch e.g. output/FeaturesResult-875.xlsx
+     */
+    private static String getOutputFile(Config config, String launchId) {
+        val reportFile = Paths.get(System.getProperty("user.dir"), config.getReportFile());
+        val fileName = reportFile.getFileName().toString();
+        val extensionIdx = fileName.lastIndexOf('.');
+        val baseName = extensionIdx < 0 ? fileName : fileName.substring(0, extensionIdx);
+        Path outputFile = reportFile.resolveSibling((launchId.isEmpty() ? baseName : baseName + "-" + launchId)
+            + "." + config.getReportFormat().getExtension());
 
         return outputFile.toString();
     }
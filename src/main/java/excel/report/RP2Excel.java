@@ -1,139 +1,446 @@
 package excel.report;
 
-import enums.DefinedCellStyle;
 import enums.FeatureType;
+import enums.ReportFormat;
+import excel.report.dto.Launch;
 import excel.report.dto.Suite;
 import excel.report.dto.Test;
 import helper.APIHelper;
-import helper.Constants;
+import helper.Config;
 import helper.ExcelHelper;
+import helper.Metrics;
+import helper.StringPool;
+import helper.ThreadHelper;
 import lombok.AllArgsConstructor;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 import lombok.SneakyThrows;
-import lombok.val;
-import org.apache.poi.ss.usermodel.ComparisonOperator;
-import org.apache.poi.ss.usermodel.ConditionalFormattingRule;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.PatternFormatting;
-import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
-import org.apache.poi.ss.util.CellRangeAddress;
-
-import java.util.Arrays;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class RP2Excel {
 
     private static final String NON_CR_SHEET_NAME = "Non-CR";
     private static final String CR_SHEET_NAME = "CR";
+    private static final String TREND_SHEET_NAME = "Trend";
+    private static final String DETAILS_SHEET_NAME = "Details";
     private static final int NON_CR_SHEET_POSITION = 1;
     private static final int CR_SHEET_POSITION = 2;
-    private static final int HEADER_ROW_IDX = 0;
+    // Sheets appended after the others
+    private static final int LAST_SHEET_POSITION = -1;
     private static final int START_ROW_IDX = 1;
-    private static final int START_COL_IDX = 1;
 
-    private ExcelHelper excelHelper;
+    private final Config config;
+    private final APIHelper apiHelper;
+    private final String launchId;
+    private ReportSink sink;
+    // State of the report, null when not in incremental mode
+    private IncrementalState state;
+    private ExecutorService fetchPool;
+    // Comments by suite path, null when comments are fetched per suite
+    private Map<String, String> commentsBySuite;
+    // Issues of the tests of the report, dropped once it's generated
+    private StringPool stringPool;
+    // Link of the launch in Report Portal's UI, the links of its tests start with it
+    private String launchUrl;
+
+    public RP2Excel(Config config) {
+        this(config, new APIHelper(config), config.getLaunchId());
+    }
+
+    /**
+     * @param config    Configuration
+     * @param apiHelper Client of Report Portal, shared by the reports of a batch
+     * @param launchId  Launch id
+     */
+    public RP2Excel(Config config, APIHelper apiHelper, String launchId) {
+        this.config = config;
+        this.apiHelper = apiHelper;
+        this.launchId = launchId;
+    }
 
+    /**
+     * Generate the report of the launch
+     * <p>
+     * A new report is created from the template, an updatable report is updated, see isUpdatable
+     *
+     * @param toFile Report file
+     */
     @SneakyThrows
     public void generate(String toFile) {
-        this.excelHelper = new ExcelHelper(toFile);
+        boolean update = this.isUpdatable(toFile);
+        if (this.config.isIncremental())
+            this.state = update ? IncrementalState.load(getStateFile(toFile)) : new IncrementalState(this.launchId);
+        this.sink = this.createSink(toFile, update);
+        this.fetchPool = Executors.newFixedThreadPool(
+            this.config.getFetchConcurrency(), ThreadHelper.daemonThreadFactory("rp-fetch")
+        );
+        this.stringPool = new StringPool();
 
-        List<Suite> suites = this.getSuites();
-        val nonCRSuites = suites
-            .parallelStream()
-            .filter(e -> e.getType() == FeatureType.NON_CR)
-            .collect(Collectors.toList());
-        val crSuites = suites
-            .parallelStream()
-            .filter(e -> e.getType() == FeatureType.CR)
-            .collect(Collectors.toList());
-        this.writeDataToSheet(nonCRSuites, NON_CR_SHEET_NAME, NON_CR_SHEET_POSITION);
-        this.writeDataToSheet(crSuites, CR_SHEET_NAME, CR_SHEET_POSITION);
-        this.finish();
+        long start = System.nanoTime();
+        try {
+            try {
+                if (this.config.getTrendLaunches() > 0) Metrics.time("report.trend", this::generateTrend);
+                if (update) this.updateData();
+                else this.generateData();
+            } finally {
+                // A failed report doesn't leave its fetch threads behind e.g. in a batch
+                this.fetchPool.shutdownNow();
+                this.stringPool = null;
+            }
+            this.finish(toFile);
+        } catch (Throwable e) {
+            // Nor its temp files, the previous report is kept
+            this.sink.discard();
+            throw e;
+        }
+        Metrics.record("report.generate", System.nanoTime() - start);
+    }
+
+    /**
+     * Check whether the report can be updated instead of generated again
+     * <p>
+     * In incremental mode, an Excel report can be updated when it exists and its state belongs to the same launch
+     *
+     * @param toFile Report file
+     */
+    public boolean isUpdatable(String toFile) {
+        if (!this.config.isIncremental() || this.config.getReportFormat() != ReportFormat.XLSX
+            || !new File(toFile).exists()) return false;
+        IncrementalState state = IncrementalState.load(getStateFile(toFile));
+        return state != null && this.launchId.equals(state.getLaunchId());
     }
 
-    private void writeDataToSheet(List<Suite> nonCRSuites, String toSheet, int position) {
-        this.excelHelper.createSheet(toSheet, position);
-        this.writeHeader(toSheet);
-        this.writeData(toSheet, nonCRSuites);
-        this.formatData(position);
+    /**
+     * Create the sink of the report format
+     *
+     * @param update Whether the Excel report is updated
+     */
+    private ReportSink createSink(String toFile, boolean update) {
+        switch (this.config.getReportFormat()) {
+            case CSV:
+                return new CsvSink(Paths.get(toFile));
+            case JSONL:
+                return new JsonLinesSink(Paths.get(toFile));
+            case HTML:
+                return new HtmlSink(Paths.get(toFile), "Launch " + this.launchId);
+            default:
+                // The Details sheet is streamed whenever it can be, it has a row per test item. The sheets of an
+                // updated report are kept in memory, their existing rows are rewritten
+                int rowWindow = this.config.isExcelStreaming() || this.config.isDetailsSheet()
+                    ? this.config.getExcelRowWindow()
+                    : 0;
+                // A new report starts from the template in memory, the report file is written once when it's complete
+                ExcelHelper excelHelper = update
+                    ? new ExcelHelper(toFile, rowWindow)
+                    : new ExcelHelper(toFile, ExcelHelper.readTemplate(getTemplateFile(this.config)), rowWindow);
+                return new XlsxSink(excelHelper, this.config.getStatusFormat());
+        }
     }
 
-    private void writeHeader(String sheetName) {
-        this.excelHelper.createRow(sheetName, HEADER_ROW_IDX, START_COL_IDX, RowData.Header.headers());
-        this.excelHelper.formatRow(sheetName, HEADER_ROW_IDX, Arrays.asList(
-            DefinedCellStyle.SET_COLOR_LIGHT_GREEN, DefinedCellStyle.ALIGN_CENTER,
-            DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.BORDER_ALL
-        ));
+    private void generateData() {
+        List<Suite> suites = Metrics.time("report.suites", () -> this.getSuites(0));
+        // Sorted suites are partitioned in one pass, each bucket keeps the sort order
+        Map<FeatureType, List<Suite>> suitesByType = suites.stream()
+            .collect(Collectors.groupingBy(Suite::getType, () -> new EnumMap<>(FeatureType.class), Collectors.toList()));
+        if (this.config.isCommentAggregation())
+            this.commentsBySuite = Metrics.time("report.comments", this::getCommentsBySuite);
+        // Sheets are created before any of them is written
+        this.sink.createSheet(NON_CR_SHEET_NAME, NON_CR_SHEET_POSITION, RowData.Header.columns());
+        this.sink.createSheet(CR_SHEET_NAME, CR_SHEET_POSITION, RowData.Header.columns());
+
+        List<Callable<Void>> sheetWriters = new ArrayList<>();
+        sheetWriters.add(this.createSheetWriter(NON_CR_SHEET_NAME,
+            suitesByType.getOrDefault(FeatureType.NON_CR, Collections.emptyList())));
+        sheetWriters.add(this.createSheetWriter(CR_SHEET_NAME,
+            suitesByType.getOrDefault(FeatureType.CR, Collections.emptyList())));
+        if (this.config.isDetailsSheet()) sheetWriters.add(this.createDetailsWriter(suites));
+        this.writeSheets(sheetWriters);
+    }
 
-        // Set column width
-        this.excelHelper.setColumnWidth(sheetName, START_COL_IDX, RowData.Header.widths());
+    /**
+     * Write sheets
+     * <p>
+     * The sheets of a concurrent sink e.g. a streaming workbook are written at the same time by a thread each and take
+     * about the time of the largest sheet, see XlsxSink. The sheets of other sinks are written one after another.
+     *
+     * @param sheetWriters Writers of sheets created beforehand, one writer per sheet
+     */
+    @SneakyThrows
+    private void writeSheets(List<Callable<Void>> sheetWriters) {
+        if (!this.sink.isConcurrent()) {
+            for (Callable<Void> sheetWriter : sheetWriters) sheetWriter.call();
+            return;
+        }
+        ExecutorService writePool = Executors.newFixedThreadPool(
+            sheetWriters.size(), ThreadHelper.daemonThreadFactory("rp-write")
+        );
+        try {
+            for (Future<Void> sheetWriter : writePool.invokeAll(sheetWriters)) sheetWriter.get();
+        } finally {
+            writePool.shutdownNow();
+        }
     }
 
+    /**
+     * Update the rows of the suites modified since the last run
+     * <p>
+     * Modified suites keep their rows, new suites are appended to their sheets. The rows of the sheets are written one
+     * at a time, the Details sheet is generated again after them.
+     */
     @SneakyThrows
-    private void writeData(String sheetName, List<Suite> suites) {
-        int currentRowIdx = START_ROW_IDX;
+    private void updateData() {
+        List<Suite> suites = Metrics.time("report.suites", () -> this.getModifiedSuites(this.state.getSyncedAt()));
+        if (this.config.isCommentAggregation())
+            this.commentsBySuite = Metrics.time("report.comments", this::getCommentsBySuite);
+        List<Callable<SheetRow>> fetchers = new ArrayList<>();
         for (Suite suite : suites) {
-            List<Test> tests = this.getTests(suite.getPath());
-            String comment = String.join("\n", this.getComments(tests));
-            this.excelHelper.createRowWithFormat(
-                sheetName, currentRowIdx, START_COL_IDX, new RowData(suite, comment).toList(),
-                Arrays.asList(DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.TOP_ALIGN, DefinedCellStyle.BORDER_ALL)
-            );
-            currentRowIdx++;
+            IncrementalState.SuiteState suiteState = this.state.locate(suite, getSheetName(suite.getType()),
+                START_ROW_IDX);
+            fetchers.add(() -> new SheetRow(suiteState.getSheetName(), suiteState.getRowIdx(), suite,
+                this.fetchRow(suite)));
         }
+        System.out.printf("Updating %d suites of launch %s%n", fetchers.size(), this.launchId);
+        this.sink.openSheet(NON_CR_SHEET_NAME, RowData.Header.columns());
+        this.sink.openSheet(CR_SHEET_NAME, RowData.Header.columns());
+        this.writeData(fetchers);
+        if (this.config.isDetailsSheet()) this.createDetailsWriter(this.getSuites(0)).call();
     }
 
-    private void formatData(int position) {
-        SheetConditionalFormatting sheetCF = this.excelHelper.getSheet(position).getSheetConditionalFormatting();
+    /**
+     * Generate the Trend sheet of the last trend.launches launches
+     * <p>
+     * The launches are fetched in parallel and aggregated into a TrendTable, the sheet is generated again on every run
+     */
+    @SneakyThrows
+    private void generateTrend() {
+        String launchName = this.config.getTrendLaunchName() != null && !this.config.getTrendLaunchName().isEmpty()
+            ? this.config.getTrendLaunchName()
+            : this.apiHelper.getLaunch(this.launchId).getName();
+        List<Launch> launches = this.getLaunches(launchName, this.config.getTrendLaunches());
+
+        TrendTable trendTable = new TrendTable(launches.size());
+        List<Callable<Void>> fetchers = new ArrayList<>();
+        for (int i = 0; i < launches.size(); i++) {
+            // Launches are sorted newest first, the table keeps the oldest first
+            int launchIdx = launches.size() - 1 - i;
+            String launchId = String.valueOf(launches.get(i).getId());
+            fetchers.add(() -> {
+                this.getSuites(launchId, 0).forEach(suite -> trendTable.add(launchIdx, suite));
+                return null;
+            });
+        }
+        for (Future<Void> fetcher : this.fetchPool.invokeAll(fetchers)) fetcher.get();
+        System.out.printf("Trend of %d suites in %d launches of %s%n", trendTable.getSuiteCount(), launches.size(),
+            launchName);
 
-        // Format FAILED data
-        ConditionalFormattingRule ruleFailed = this.createRule(sheetCF, "\"FAILED\"",
-            IndexedColors.RED.index);
-        // Format PASSED data
-        ConditionalFormattingRule rulePassed = this.createRule(sheetCF, "\"PASSED\"", IndexedColors.GREEN.index);
-        // Format SKIPPED data
-        ConditionalFormattingRule ruleSkipped = this.createRule(sheetCF, "\"SKIPPED\"",
-            IndexedColors.BLUE_GREY.index);
+        this.sink.createSheet(TREND_SHEET_NAME, LAST_SHEET_POSITION, TrendTable.Header.columns());
+        int rowIdx = START_ROW_IDX;
+        for (int suiteIdx : trendTable.getSortedSuiteIdxs()) {
+            this.sink.writeRow(TREND_SHEET_NAME, rowIdx++, trendTable.toList(suiteIdx), 0);
+        }
+    }
 
-        ConditionalFormattingRule[] cfRules = new ConditionalFormattingRule[]{ruleFailed, rulePassed, ruleSkipped};
+    /**
+     * Create the Details sheet of every test item of the launch
+     * <p>
+     * The tests of the suites are fetched page by page through the row pipeline and written as they arrive, a suite
+     * row is followed by its tests grouped under it. Only the suites in the pipeline and the rows in the row window are
+     * kept in memory. The sheet is generated again on every run.
+     *
+     * @param suites Suites of the launch
+     * @return Writer of the sheet
+     */
+    private Callable<Void> createDetailsWriter(List<Suite> suites) {
+        this.launchUrl = this.getLaunchUrl();
+        this.sink.createSheet(DETAILS_SHEET_NAME, LAST_SHEET_POSITION, DetailsRow.Header.columns());
 
-        CellRangeAddress[] regions = new CellRangeAddress[]{CellRangeAddress.valueOf("C2:C120")};
+        List<Callable<SuiteTests>> fetchers = suites.stream()
+            .map(suite -> (Callable<SuiteTests>) () -> new SuiteTests(suite,
+                this.getTests(suite.getPath(), false).collect(Collectors.toList())))
+            .collect(Collectors.toList());
+        return () -> {
+            Metrics.time("report.details", () -> this.writeDetails(fetchers));
+            return null;
+        };
+    }
 
-        sheetCF.addConditionalFormatting(regions, cfRules);
+    @SneakyThrows
+    private void writeDetails(List<Callable<SuiteTests>> fetchers) {
+        int[] rowIdx = {START_ROW_IDX};
+        int[] testCount = {0};
+        new RowPipeline<SuiteTests>(this.fetchPool, this.config.getPipelineCapacity(), this.config.getFetchTimeoutSeconds())
+            .run(fetchers, suiteTests -> {
+                this.sink.writeRow(DETAILS_SHEET_NAME, rowIdx[0]++, DetailsRow.toList(suiteTests.suite), 0);
+                for (Test test : suiteTests.tests) {
+                    this.sink.writeRow(DETAILS_SHEET_NAME, rowIdx[0]++,
+                        DetailsRow.toList(suiteTests.suite, test, this.getTestUrl(test)), 1);
+                }
+                testCount[0] += suiteTests.tests.size();
+            });
+        System.out.printf("Details of %d tests in %d suites%n", testCount[0], fetchers.size());
     }
 
-    private ConditionalFormattingRule createRule(SheetConditionalFormatting sheetCF, String formula,
-                                                 short backgroundColor) {
-        ConditionalFormattingRule rule = sheetCF
-            .createConditionalFormattingRule(ComparisonOperator.EQUAL, formula);
-        PatternFormatting fillSkipped = rule.createPatternFormatting();
-        fillSkipped.setFillBackgroundColor(backgroundColor);
-        fillSkipped.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+    /**
+     * Get the link of the launch in Report Portal's UI
+     * <p>
+     * e.g. https://rp.example.com/ui/#my_project/launches/all/875/
+     */
+    private String getLaunchUrl() {
+        return String.format("%s/ui/#%s/launches/all/%s/", this.config.getReportPortalUrl().replaceAll("/+$", ""),
+            this.config.getProjectName(), this.launchId);
+    }
 
-        return rule;
+    /**
+     * Get the link of a test in Report Portal's UI, called for every row of the Details sheet
+     * <p>
+     * e.g. https://rp.example.com/ui/#my_project/launches/all/875/161810/161811/log
+     */
+    private String getTestUrl(Test test) {
+        return this.launchUrl + test.getPath().replace('.', '/') + "/log";
+    }
+
+    /**
+     * Create the writer of the rows of a sheet
+     *
+     * @param suites Suites of the sheet, in the order of the rows
+     */
+    private Callable<Void> createSheetWriter(String sheetName, List<Suite> suites) {
+        List<Callable<SheetRow>> fetchers = new ArrayList<>();
+        int rowIdx = START_ROW_IDX;
+        for (Suite suite : suites) {
+            int currentRowIdx = rowIdx++;
+            fetchers.add(() -> new SheetRow(sheetName, currentRowIdx, suite, this.fetchRow(suite)));
+        }
+        return () -> {
+            this.writeData(fetchers);
+            return null;
+        };
+    }
+
+    private static String getSheetName(FeatureType type) {
+        return type == FeatureType.CR ? CR_SHEET_NAME : NON_CR_SHEET_NAME;
+    }
+
+    private static Path getTemplateFile(Config config) {
+        return Paths.get(System.getProperty("user.dir"), config.getReportTemplateFile());
+    }
+
+    private static Path getStateFile(String toFile) {
+        return Paths.get(toFile + ".state.json");
+    }
+
+    /**
+     * Write rows
+     * <p>
+     * Rows are fetched by the fetch pool while the rows fetched so far are written, the rows keep the fetchers' order
+     *
+     * @param fetchers Fetchers of the rows
+     */
+    @SneakyThrows
+    private void writeData(List<Callable<SheetRow>> fetchers) {
+        long start = System.nanoTime();
+        new RowPipeline<SheetRow>(this.fetchPool, this.config.getPipelineCapacity(), this.config.getFetchTimeoutSeconds())
+            .run(fetchers, row -> {
+                this.sink.writeRow(row.sheetName, row.rowIdx, row.rowData.toList(), 0);
+                if (this.state != null) this.state.put(row.suite, row.sheetName, row.rowIdx);
+            });
+        Metrics.record("report.rows", System.nanoTime() - start);
+    }
+
+    /**
+     * Fetch the row of a suite
+     * <p>
+     * The tests of the suite are requested unless the comments have been aggregated
+     *
+     * @param suite Suite
+     */
+    private RowData fetchRow(Suite suite) {
+        String comment = this.commentsBySuite != null
+            ? this.commentsBySuite.getOrDefault(suite.getPath(), "")
+            : String.join("\n", this.getComments(this.getTests(suite.getPath(), true)));
+        return new RowData(suite, comment);
     }
 
     /**
      * Get suites
      * <p>
      * Call Report Portal's APIs then write data to Data objects
+     *
+     * @param modifiedSince Only get suites modified since this epoch millis, 0 to get all suites
+     */
+    private List<Suite> getSuites(long modifiedSince) {
+        return this.getSuites(this.launchId, modifiedSince)
+            .sorted(Comparator.comparing(e -> e.getStatus().name()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the suites modified since the last run
+     * <p>
+     * Editing the issue of a test e.g. its comment doesn't modify its suite, the suites of the tests modified since
+     * the last run are got too
+     *
+     * @param modifiedSince Epoch millis of the last run's most recent modification, 0 to get all suites
      */
-    private List<Suite> getSuites() {
+    private List<Suite> getModifiedSuites(long modifiedSince) {
+        List<Suite> suites = this.getSuites(modifiedSince);
+        if (modifiedSince == 0) return suites;
+
+        Set<String> testParentPaths = new HashSet<>();
+        this.getModifiedTests(modifiedSince).forEach(test -> {
+            testParentPaths.add(test.getParentPath());
+            this.state.sync(test.getLastModified());
+        });
+        suites.forEach(suite -> testParentPaths.remove(suite.getPath()));
+        if (!testParentPaths.isEmpty()) {
+            this.getSuites(0).stream()
+                .filter(suite -> testParentPaths.contains(suite.getPath()))
+                .forEach(suites::add);
+        }
+        return suites;
+    }
+
+    private Stream<Suite> getSuites(String launchId, long modifiedSince) {
         // filter.eq.launchId=875&filter.level.path=1&page.page=1&page.size=70&page.sort=startTime,ASC
         Map<String, String> query = new HashMap<>();
-        query.put("filter.eq.launchId", Constants.LAUNCH_ID);
+        query.put("filter.eq.launchId", launchId);
         query.put("filter.level.path", "1");
-        query.put("page.page", "1");
-        query.put("page.size", Constants.PAGE_SIZE);
+        if (modifiedSince > 0) query.put("filter.gte.lastModified", String.valueOf(modifiedSince));
+        query.put("page.size", this.config.getPageSize());
         query.put("page.sort", "startTime,ASC");
-        return APIHelper.getSuites(query)
-            .stream()
-            .sorted((a, b) -> a.getStatus().compareToIgnoreCase(b.getStatus()))
-            .collect(Collectors.toList());
+        return this.apiHelper.getSuites(query);
+    }
+
+    /**
+     * Get the last launches of a name
+     *
+     * @param launchName Launch name
+     * @param limit      Max number of launches
+     * @return Launches, the newest first
+     */
+    private List<Launch> getLaunches(String launchName, int limit) {
+        // filter.eq.name=Regression&page.page=1&page.size=50&page.sort=startTime,DESC
+        Map<String, String> query = new HashMap<>();
+        query.put("filter.eq.name", launchName);
+        query.put("page.sort", "startTime,DESC");
+        return this.apiHelper.getLaunches(query, limit).collect(Collectors.toList());
     }
 
     /**
@@ -142,85 +449,79 @@ public class RP2Excel {
      * Call Report Portal's APIs then write data to Data objects
      *
      * @param parentId Parent Id
+     * @param withIssue Only get the tests which may have an issue, else get all tests
      */
-    private List<Test> getTests(String parentId) {
+    private Stream<Test> getTests(String parentId, boolean withIssue) {
         // filter.eq.launchId=875&filter.eq.parentId=161810&page.page=1&page.size=70&page.sort=startTime,ASC
         Map<String, String> query = new HashMap<>();
-        query.put("filter.eq.launchId", Constants.LAUNCH_ID);
+        query.put("filter.eq.launchId", this.launchId);
         query.put("filter.eq.parentId", String.valueOf(parentId));
+        if (withIssue) query.put("filter.in.status", "FAILED,INTERRUPTED,SKIPPED");
+        query.put("page.size", this.config.getPageSize());
+        query.put("page.sort", "startTime,ASC");
+        return this.apiHelper.getTests(query, this.stringPool);
+    }
+
+    /**
+     * Get the tests of the launch modified since an epoch millis
+     */
+    private Stream<Test> getModifiedTests(long modifiedSince) {
+        // filter.eq.launchId=875&filter.level.path=2&filter.gte.lastModified=1617181920000
+        Map<String, String> query = new HashMap<>();
+        query.put("filter.eq.launchId", this.launchId);
+        query.put("filter.level.path", "2");
+        query.put("filter.gte.lastModified", String.valueOf(modifiedSince));
+        query.put("page.size", this.config.getPageSize());
+        query.put("page.sort", "startTime,ASC");
+        return this.apiHelper.getTests(query, this.stringPool);
+    }
+
+    /**
+     * Get comments of all suites
+     * <p>
+     * Call Report Portal's APIs for the issue-bearing tests of the launch then group their comments by suite path
+     */
+    private Map<String, String> getCommentsBySuite() {
+        // filter.eq.launchId=875&filter.level.path=2&filter.in.status=FAILED,INTERRUPTED,SKIPPED&filter.ex.issueType=true
+        Map<String, String> query = new HashMap<>();
+        query.put("filter.eq.launchId", this.launchId);
+        query.put("filter.level.path", "2");
         query.put("filter.in.status", "FAILED,INTERRUPTED,SKIPPED");
-        query.put("page.page", "1");
-        query.put("page.size", Constants.PAGE_SIZE);
+        query.put("filter.ex.issueType", "true");
+        query.put("page.size", this.config.getPageSize());
         query.put("page.sort", "startTime,ASC");
-        return APIHelper.getTests(query);
+        return this.apiHelper.getTests(query, this.stringPool)
+            .filter(Test::hasIssue)
+            .collect(Collectors.groupingBy(Test::getParentPath, Collectors.mapping(Test::getComment,
+                Collectors.collectingAndThen(Collectors.toCollection(LinkedHashSet::new), e -> String.join("\n", e))
+            )));
     }
 
-    private List<String> getComments(List<Test> tests) {
-        return tests.stream()
-            .filter(e -> e.getIssue() != null)
+    private List<String> getComments(Stream<Test> tests) {
+        return tests
+            .filter(Test::hasIssue)
             .map(Test::getComment)
             .distinct()
             .collect(Collectors.toList());
     }
 
     @SneakyThrows
-    private void finish() {
-        this.excelHelper.saveAndClose();
+    private void finish(String toFile) {
+        this.sink.save();
+        if (this.state != null) this.state.save(getStateFile(toFile));
     }
 
     @AllArgsConstructor
-    @NoArgsConstructor
-    @Setter
-    private static class RowData {
-        @AllArgsConstructor
-        enum Header {
-            FEATURE("Feature", 60),
-            STATUS("Status", 15),
-            TOTAL("Total", 10),
-            PASSED("Passed", 10),
-            SKIPPED("Failed", 10),
-            FAILED("Skipped", 10),
-            NOTE("Note", 30);
-
-            String title;
-            Integer width;
-
-            static List<String> headers() {
-                return Arrays.stream(Header.values()).map(h -> h.title).collect(Collectors.toList());
-            }
-
-            static List<Integer> widths() {
-                return Arrays.stream(Header.values()).map(h -> h.width).collect(Collectors.toList());
-            }
-        }
-
-        String feature;
-        String status;
-        int total;
-        int passed;
-        int skipped;
-        int failed;
-        String note;
-
-        public RowData(Suite suite, String comment) {
-            this.feature = suite.getName();
-            this.status = suite.getStatus();
-            this.total = suite.getStatistics().getExecutions().getTotal();
-            this.passed = suite.getStatistics().getExecutions().getPassed();
-            this.failed = suite.getStatistics().getExecutions().getFailed();
-            this.skipped = suite.getStatistics().getExecutions().getSkipped();
-            this.note = comment;
-        }
-
-        public List<String> toList() {
+    private static class SheetRow {
+        String sheetName;
+        int rowIdx;
+        Suite suite;
+        RowData rowData;
+    }
 
-            return Arrays.asList(this.feature, status,
-                String.valueOf(this.total),
-                String.valueOf(this.passed),
-                String.valueOf(this.failed),
-                String.valueOf(this.skipped),
-                this.note
-            );
-        }
+    @AllArgsConstructor
+    private static class SuiteTests {
+        Suite suite;
+        List<Test> tests;
     }
 }
@@ -0,0 +1,48 @@
+package excel.report;
+
+import java.util.List;
+
+/**
+ * Destination of the sheets of a report e.g. an Excel workbook or CSV files
+ * <p>
+ * The sheets are created before their rows are written and the rows of a sheet are written in order. A sink which
+ * isn't concurrent is written by one thread, one sheet after another.
+ */
+interface ReportSink {
+
+    /**
+     * Create a sheet, a sheet with the same name is replaced
+     *
+     * @param position Index of the sheet among the sheets, -1 to add it after the others
+     */
+    void createSheet(String sheetName, int position, List<Column> columns);
+
+    /**
+     * Open a sheet of the report being updated
+     */
+    void openSheet(String sheetName, List<Column> columns);
+
+    /**
+     * Write a row
+     *
+     * @param rowIdx Index of the row in the sheet, rows of a sheet being updated are rewritten
+     * @param values Values of the columns
+     * @param level  0 for a row, 1 for a row grouped under the previous row of level 0
+     */
+    void writeRow(String sheetName, int rowIdx, List<String> values, int level);
+
+    /**
+     * Check whether sheets can be written by a thread each at the same time
+     */
+    boolean isConcurrent();
+
+    /**
+     * Complete the report and close the sink
+     */
+    void save();
+
+    /**
+     * Close the sink of a failed report, what it has written is deleted and the previous report is kept
+     */
+    void discard();
+}
@@ -0,0 +1,68 @@
+package excel.report;
+
+import enums.TestStatus;
+import excel.report.dto.Suite;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Row of a suite in the Non-CR and CR sheets, the same row in every report format
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+class RowData {
+    @AllArgsConstructor
+    enum Header {
+        FEATURE("Feature", 60, Column.Type.TEXT),
+        STATUS("Status", 15, Column.Type.STATUS),
+        TOTAL("Total", 10, Column.Type.NUMBER),
+        PASSED("Passed", 10, Column.Type.NUMBER),
+        SKIPPED("Failed", 10, Column.Type.NUMBER),
+        FAILED("Skipped", 10, Column.Type.NUMBER),
+        NOTE("Note", 30, Column.Type.TEXT);
+
+        String title;
+        Integer width;
+        Column.Type type;
+
+        static List<Column> columns() {
+            return Arrays.stream(Header.values()).map(h -> new Column(h.title, h.width, h.type))
+                .collect(Collectors.toList());
+        }
+    }
+
+    String feature;
+    TestStatus status;
+    int total;
+    int passed;
+    int skipped;
+    int failed;
+    String note;
+
+    public RowData(Suite suite, String comment) {
+        this.feature = suite.getName();
+        this.status = suite.getStatus();
+        this.total = suite.getTotal();
+        this.passed = suite.getPassed();
+        this.failed = suite.getFailed();
+        this.skipped = suite.getSkipped();
+        this.note = comment;
+    }
+
+    public List<String> toList() {
+
+        return Arrays.asList(this.feature, this.status.name(),
+            String.valueOf(this.total),
+            String.valueOf(this.passed),
+            String.valueOf(this.failed),
+            String.valueOf(this.skipped),
+            this.note
+        );
+    }
+}
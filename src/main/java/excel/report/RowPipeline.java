@@ -0,0 +1,101 @@
+package excel.report;
+
+import helper.ThreadHelper;
+import lombok.AllArgsConstructor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Fetch rows in parallel while a single writer writes them in order
+ * <p>
+ * Fetchers run on the fetch pool and put their rows on a bounded queue, the writer drains the queue on the calling
+ * thread and holds rows arriving early until their turn. At most capacity rows are fetched, queued or waiting for
+ * their turn at a time, fetchers wait when the writer falls behind.
+ *
+ * @param <T> Type of the rows
+ */
+class RowPipeline<T> {
+    private final ExecutorService fetchPool;
+    private final int capacity;
+    private final long timeoutSeconds;
+
+    RowPipeline(ExecutorService fetchPool, int capacity, long timeoutSeconds) {
+        this.fetchPool = fetchPool;
+        this.capacity = capacity;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Run the pipeline
+     *
+     * @param fetchers Fetchers of the rows, in the order the rows are written
+     * @param writer   Writer of the rows, called on the calling thread
+     * @throws ExecutionException when a fetcher fails
+     * @throws TimeoutException   when no row is fetched within the timeout
+     */
+    void run(List<Callable<T>> fetchers, Consumer<T> writer)
+        throws InterruptedException, ExecutionException, TimeoutException {
+        Semaphore permits = new Semaphore(this.capacity);
+        BlockingQueue<FetchedRow<T>> fetchedRows = new ArrayBlockingQueue<>(this.capacity);
+        Thread submitter = ThreadHelper.daemonThreadFactory("rp-pipeline").newThread(() -> {
+            try {
+                for (int i = 0; i < fetchers.size(); i++) {
+                    permits.acquire();
+                    int rowIdx = i;
+                    this.fetchPool.submit(() -> fetchedRows.add(fetch(rowIdx, fetchers.get(rowIdx))));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+
+        try {
+            Map<Integer, FetchedRow<T>> earlyRows = new HashMap<>();
+            int nextRowIdx = 0;
+            while (nextRowIdx < fetchers.size()) {
+                FetchedRow<T> fetchedRow = fetchedRows.poll(this.timeoutSeconds, TimeUnit.SECONDS);
+                if (fetchedRow == null)
+                    throw new TimeoutException(String.format("Row %d isn't fetched in %d seconds", nextRowIdx,
+                        this.timeoutSeconds));
+                earlyRows.put(fetchedRow.rowIdx, fetchedRow);
+
+                // Write the rows whose turn has come
+                while ((fetchedRow = earlyRows.remove(nextRowIdx)) != null) {
+                    if (fetchedRow.error != null) throw new ExecutionException(fetchedRow.error);
+                    writer.accept(fetchedRow.row);
+                    permits.release();
+                    nextRowIdx++;
+                }
+            }
+        } finally {
+            submitter.interrupt();
+        }
+    }
+
+    private static <T> FetchedRow<T> fetch(int rowIdx, Callable<T> fetcher) {
+        try {
+            return new FetchedRow<>(rowIdx, fetcher.call(), null);
+        } catch (Exception e) {
+            return new FetchedRow<>(rowIdx, null, e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class FetchedRow<T> {
+        int rowIdx;
+        T row;
+        Exception error;
+    }
+}
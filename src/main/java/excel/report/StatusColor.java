@@ -0,0 +1,47 @@
+package excel.report;
+
+import enums.DefinedCellStyle;
+import enums.TestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
+
+/**
+ * Colors of the statuses, the same in every report format
+ */
+@Getter
+@AllArgsConstructor
+enum StatusColor {
+    FAILED(TestStatus.FAILED, DefinedCellStyle.SET_COLOR_RED, IndexedColors.RED),
+    PASSED(TestStatus.PASSED, DefinedCellStyle.SET_COLOR_GREEN, IndexedColors.GREEN),
+    SKIPPED(TestStatus.SKIPPED, DefinedCellStyle.SET_COLOR_BLUE_GREY, IndexedColors.BLUE_GREY);
+
+    private final TestStatus status;
+    // Fill style of a cell of the status
+    private final DefinedCellStyle cellStyle;
+    // Fill color of a conditional formatting rule of the status
+    private final IndexedColors color;
+
+    /**
+     * Get the color of a status
+     *
+     * @param status Status name e.g. FAILED
+     * @return Color or null when the status isn't colored
+     */
+    static StatusColor of(String status) {
+        TestStatus testStatus = TestStatus.of(status);
+        for (StatusColor statusColor : values()) {
+            if (statusColor.status == testStatus) return statusColor;
+        }
+        return null;
+    }
+
+    /**
+     * Get the RGB color of Excel's indexed color e.g. #FF0000
+     */
+    String getHtmlColor() {
+        byte[] rgb = DefaultIndexedColorMap.getDefaultRGB(this.color.getIndex());
+        return String.format("#%02X%02X%02X", rgb[0] & 0xFF, rgb[1] & 0xFF, rgb[2] & 0xFF);
+    }
+}
@@ -0,0 +1,174 @@
+package excel.report;
+
+import enums.TestStatus;
+import excel.report.dto.Suite;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Results of suites across launches
+ * <p>
+ * A columnar table of primitive arrays, the cell of a suite and a launch is at suiteIdx * launchCount + launchIdx.
+ * Only the name and the index of a suite are kept as objects, the memory grows with suites x launches primitives
+ * instead of a Suite per suite per launch. Launches are added from many threads.
+ */
+class TrendTable {
+    private static final byte ABSENT = 0;
+    private static final byte PASSED = 1;
+    private static final byte FAILED = 2;
+    private static final byte SKIPPED = 3;
+    private static final char[] HISTORY_CHARS = {'-', 'P', 'F', 'S'};
+
+    private final int launchCount;
+    private final Map<String, Integer> suiteIdxs = new HashMap<>();
+    private final List<String> suiteNames = new ArrayList<>();
+    private byte[] statuses;
+    private int[] passed;
+    private int[] failed;
+
+    /**
+     * @param launchCount Number of launches, launch index 0 is the oldest launch
+     */
+    TrendTable(int launchCount) {
+        this.launchCount = launchCount;
+        this.statuses = new byte[16 * launchCount];
+        this.passed = new int[16 * launchCount];
+        this.failed = new int[16 * launchCount];
+    }
+
+    /**
+     * Add the result of a suite in a launch
+     * <p>
+     * Suites of a launch with the same name are merged, a failed one fails the merged suite
+     */
+    synchronized void add(int launchIdx, Suite suite) {
+        int cell = this.getSuiteIdx(suite.getName()) * this.launchCount + launchIdx;
+        this.statuses[cell] = merge(this.statuses[cell], toStatus(suite.getStatus()));
+        this.passed[cell] += suite.getPassed();
+        this.failed[cell] += suite.getFailed();
+    }
+
+    int getSuiteCount() {
+        return this.suiteNames.size();
+    }
+
+    /**
+     * Get the indexes of the suites, the flakiest first
+     */
+    int[] getSortedSuiteIdxs() {
+        return IntStream.range(0, this.getSuiteCount()).boxed()
+            .sorted(Comparator.<Integer>comparingDouble(this::getFlakiness).reversed()
+                .thenComparing(Comparator.<Integer>comparingInt(i -> this.countRuns(i, FAILED)).reversed())
+                .thenComparing(this.suiteNames::get))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    /**
+     * Get the flakiness of a suite
+     * <p>
+     * Share of the consecutive runs of the suite flipping between passed and failed, skipped runs are ignored
+     *
+     * @return 0 for a stable suite to 1 for a suite flipping on every run
+     */
+    double getFlakiness(int suiteIdx) {
+        int from = suiteIdx * this.launchCount;
+        byte previous = ABSENT;
+        int transitions = 0;
+        int flips = 0;
+        for (int cell = from; cell < from + this.launchCount; cell++) {
+            byte status = this.statuses[cell];
+            if (status != PASSED && status != FAILED) continue;
+            if (previous != ABSENT) {
+                transitions++;
+                if (status != previous) flips++;
+            }
+            previous = status;
+        }
+        return transitions == 0 ? 0 : (double) flips / transitions;
+    }
+
+    List<String> toList(int suiteIdx) {
+        int from = suiteIdx * this.launchCount;
+        int passedTests = 0;
+        int failedTests = 0;
+        StringBuilder history = new StringBuilder(this.launchCount);
+        for (int cell = from; cell < from + this.launchCount; cell++) {
+            passedTests += this.passed[cell];
+            failedTests += this.failed[cell];
+            history.append(HISTORY_CHARS[this.statuses[cell]]);
+        }
+        return Arrays.asList(this.suiteNames.get(suiteIdx),
+            String.valueOf(this.launchCount - this.countRuns(suiteIdx, ABSENT)),
+            String.valueOf(this.countRuns(suiteIdx, PASSED)),
+            String.valueOf(this.countRuns(suiteIdx, FAILED)),
+            String.valueOf(passedTests),
+            String.valueOf(failedTests),
+            String.valueOf(Math.round(this.getFlakiness(suiteIdx) * 100)),
+            history.toString()
+        );
+    }
+
+    private int countRuns(int suiteIdx, byte status) {
+        int from = suiteIdx * this.launchCount;
+        int runs = 0;
+        for (int cell = from; cell < from + this.launchCount; cell++) if (this.statuses[cell] == status) runs++;
+        return runs;
+    }
+
+    private int getSuiteIdx(String suiteName) {
+        return this.suiteIdxs.computeIfAbsent(suiteName, name -> {
+            int suiteIdx = this.suiteNames.size();
+            this.suiteNames.add(name);
+            int cells = (suiteIdx + 1) * this.launchCount;
+            if (cells > this.statuses.length) {
+                int capacity = Math.max(cells, this.statuses.length * 2);
+                this.statuses = Arrays.copyOf(this.statuses, capacity);
+                this.passed = Arrays.copyOf(this.passed, capacity);
+                this.failed = Arrays.copyOf(this.failed, capacity);
+            }
+            return suiteIdx;
+        });
+    }
+
+    private static byte merge(byte status, byte other) {
+        if (status == FAILED || other == FAILED) return FAILED;
+        if (status == PASSED || other == PASSED) return PASSED;
+        return (byte) Math.max(status, other);
+    }
+
+    private static byte toStatus(TestStatus status) {
+        if (status == TestStatus.PASSED) return PASSED;
+        if (status == TestStatus.SKIPPED) return SKIPPED;
+        return FAILED;
+    }
+
+    @AllArgsConstructor
+    enum Header {
+        FEATURE("Feature", 60, Column.Type.TEXT),
+        RUNS("Runs", 10, Column.Type.NUMBER),
+        PASSED_RUNS("Passed runs", 10, Column.Type.NUMBER),
+        FAILED_RUNS("Failed runs", 10, Column.Type.NUMBER),
+        PASSED("Passed tests", 10, Column.Type.NUMBER),
+        FAILED("Failed tests", 10, Column.Type.NUMBER),
+        FLAKINESS("Flakiness %", 12, Column.Type.NUMBER),
+        HISTORY("History (oldest first)", 30, Column.Type.TEXT);
+
+        String title;
+        Integer width;
+        Column.Type type;
+
+        static List<Column> columns() {
+            return Arrays.stream(Header.values()).map(h -> new Column(h.title, h.width, h.type))
+                .collect(Collectors.toList());
+        }
+    }
+}
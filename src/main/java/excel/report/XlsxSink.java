@@ -0,0 +1,162 @@
+package excel.report;
+
+import enums.DefinedCellStyle;
+import enums.StatusFormat;
+import helper.ExcelHelper;
+import helper.Metrics;
+import lombok.SneakyThrows;
+import org.apache.poi.ss.usermodel.ComparisonOperator;
+import org.apache.poi.ss.usermodel.ConditionalFormattingRule;
+import org.apache.poi.ss.usermodel.PatternFormatting;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Excel workbook of a report
+ * <p>
+ * A sheet has a header row then its rows, from the second column. The status column is colored by conditional
+ * formatting rules or by fill styles, see StatusFormat. A streaming workbook is concurrent, each sheet buffers its rows
+ * and flushes them to its own temp file.
+ */
+class XlsxSink implements ReportSink {
+    private static final int HEADER_ROW_IDX = 0;
+    private static final int START_COL_IDX = 1;
+    private static final String LINK_LABEL = "Open";
+    private static final List<DefinedCellStyle> HEADER_STYLES = Arrays.asList(
+        DefinedCellStyle.SET_COLOR_LIGHT_GREEN, DefinedCellStyle.ALIGN_CENTER,
+        DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.BORDER_ALL
+    );
+    private static final List<DefinedCellStyle> ROW_STYLES = Arrays.asList(
+        DefinedCellStyle.WRAP_TEXT, DefinedCellStyle.TOP_ALIGN, DefinedCellStyle.BORDER_ALL
+    );
+    private static final List<DefinedCellStyle> LINK_STYLES = Arrays.asList(
+        DefinedCellStyle.TOP_ALIGN, DefinedCellStyle.BORDER_ALL, DefinedCellStyle.LINK
+    );
+
+    private final ExcelHelper excelHelper;
+    private final StatusFormat statusFormat;
+    // Columns of the sheets created or opened, the sheets are created before they're written
+    private final Map<String, List<Column>> columnsBySheet = new LinkedHashMap<>();
+
+    /**
+     * @param excelHelper  Workbook
+     * @param statusFormat Coloring of the status columns
+     */
+    XlsxSink(ExcelHelper excelHelper, StatusFormat statusFormat) {
+        this.excelHelper = excelHelper;
+        this.statusFormat = statusFormat;
+    }
+
+    @Override
+    public void createSheet(String sheetName, int position, List<Column> columns) {
+        if (this.excelHelper.doesSheetExist(sheetName)) this.excelHelper.removeSheet(sheetName);
+        if (position < 0) this.excelHelper.createSheet(sheetName);
+        else this.excelHelper.createSheet(sheetName, position);
+        this.columnsBySheet.put(sheetName, columns);
+
+        this.excelHelper.createRow(sheetName, HEADER_ROW_IDX, START_COL_IDX,
+            columns.stream().map(Column::getTitle).collect(Collectors.toList()));
+        this.excelHelper.formatRow(sheetName, HEADER_ROW_IDX, HEADER_STYLES);
+
+        // Set column width
+        this.excelHelper.setColumnWidth(sheetName, START_COL_IDX,
+            columns.stream().map(Column::getWidth).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void openSheet(String sheetName, List<Column> columns) {
+        this.columnsBySheet.put(sheetName, columns);
+    }
+
+    @Override
+    public void writeRow(String sheetName, int rowIdx, List<String> values, int level) {
+        List<Column> columns = this.columnsBySheet.get(sheetName);
+        this.excelHelper.createRowWithFormat(sheetName, rowIdx, START_COL_IDX, values, ROW_STYLES);
+        for (int i = 0; i < columns.size(); i++) {
+            String value = values.get(i);
+            if (columns.get(i).getType() == Column.Type.LINK && value != null && !value.isEmpty()) {
+                // A formula unlike a hyperlink object is flushed with its row in streaming mode
+                this.excelHelper.createLinkCell(sheetName, rowIdx, START_COL_IDX + i, value, LINK_LABEL, LINK_STYLES);
+            } else if (columns.get(i).getType() == Column.Type.STATUS && this.statusFormat == StatusFormat.STYLES) {
+                this.formatStatus(sheetName, rowIdx, START_COL_IDX + i, value);
+            }
+        }
+        if (level > 0) this.excelHelper.groupRow(sheetName, rowIdx);
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return this.excelHelper.isStreaming();
+    }
+
+    @Override
+    @SneakyThrows
+    public void save() {
+        Metrics.time("report.format", () -> this.columnsBySheet.forEach(this::formatData));
+        this.excelHelper.saveAndClose();
+    }
+
+    @Override
+    public void discard() {
+        this.excelHelper.discard();
+    }
+
+    /**
+     * Color the status of a written row with the fill style of its status
+     */
+    private void formatStatus(String sheetName, int rowIdx, int colIdx, String status) {
+        StatusColor statusColor = StatusColor.of(status);
+        if (statusColor == null) return;
+        List<DefinedCellStyle> cellStyles = new ArrayList<>(ROW_STYLES);
+        cellStyles.add(statusColor.getCellStyle());
+        this.excelHelper.formatCell(sheetName, rowIdx, colIdx, cellStyles);
+    }
+
+    /**
+     * Format the status column of the rows written to a sheet
+     * <p>
+     * Conditional formatting rules are added in rules mode, the statuses are already colored in styles mode
+     */
+    private void formatData(String sheetName, List<Column> columns) {
+        Sheet sheet = this.excelHelper.getSheet(sheetName);
+        SheetConditionalFormatting sheetCF = sheet.getSheetConditionalFormatting();
+        // Formatting of an updated sheet is replaced
+        while (sheetCF.getNumConditionalFormattings() > 0) sheetCF.removeConditionalFormatting(0);
+        int lastRowIdx = sheet.getLastRowNum();
+        if (this.statusFormat != StatusFormat.RULES || lastRowIdx <= HEADER_ROW_IDX) return;
+
+        // Format FAILED, PASSED and SKIPPED data
+        ConditionalFormattingRule[] cfRules = Arrays.stream(StatusColor.values())
+            .map(e -> this.createRule(sheetCF, "\"" + e.getStatus().name() + "\"", e.getColor().getIndex()))
+            .toArray(ConditionalFormattingRule[]::new);
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getType() != Column.Type.STATUS) continue;
+            // Status column of the written rows e.g. C2:C120
+            int statusColIdx = START_COL_IDX + i;
+            CellRangeAddress[] regions = new CellRangeAddress[]{
+                new CellRangeAddress(HEADER_ROW_IDX + 1, lastRowIdx, statusColIdx, statusColIdx)
+            };
+            sheetCF.addConditionalFormatting(regions, cfRules);
+        }
+    }
+
+    private ConditionalFormattingRule createRule(SheetConditionalFormatting sheetCF, String formula,
+                                                 short backgroundColor) {
+        ConditionalFormattingRule rule = sheetCF
+            .createConditionalFormattingRule(ComparisonOperator.EQUAL, formula);
+        PatternFormatting fillSkipped = rule.createPatternFormatting();
+        fillSkipped.setFillBackgroundColor(backgroundColor);
+        fillSkipped.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+
+        return rule;
+    }
+}
@@ -0,0 +1,28 @@
+package excel.report.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+/**
+ * Launch of Report Portal
+ */
+@Getter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Launch {
+
+    final int id;
+    final String name;
+    final int number;
+    final String status;
+
+    @JsonCreator
+    public Launch(@JsonProperty("id") int id, @JsonProperty("name") String name, @JsonProperty("number") int number,
+                  @JsonProperty("status") String status) {
+        this.id = id;
+        this.name = name;
+        this.number = number;
+        this.status = status;
+    }
+}
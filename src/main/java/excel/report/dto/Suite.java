@@ -1,60 +1,71 @@
 package excel.report.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import enums.FeatureType;
+import enums.TestStatus;
 import lombok.Getter;
-import lombok.Setter;
 
+/**
+ * Suite of a launch
+ * <p>
+ * Immutable and compact: the display name, the type and the normalized status are derived once when the suite is
+ * deserialized and the execution counts are kept as primitives
+ */
 @Getter
-@Setter
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Suite {
 
-    @JsonProperty("id")
-    int id;
-    @JsonProperty("name")
-    String name;
-    @JsonProperty("status")
-    String status;
-    @JsonProperty("path")
-    String path;
-    @JsonProperty("statistics")
-    Statistics statistics;
-
+    final int id;
+    final String name;
+    final TestStatus status;
+    final String path;
+    final int total;
+    final int passed;
+    final int failed;
+    final int skipped;
+    final long lastModified;
     @JsonIgnore
-    FeatureType type;
-
-    public String getName() {
-        return this.name.replace("Feature: ", "");
-    }
+    final FeatureType type;
 
-    public FeatureType getType() {
-        if (this.name.contains("NON-CR")) return FeatureType.NON_CR;
-        return FeatureType.CR;
+    @JsonCreator
+    public Suite(@JsonProperty("id") int id, @JsonProperty("name") String name, @JsonProperty("status") String status,
+                 @JsonProperty("path") String path, @JsonProperty("statistics") Statistics statistics,
+                 @JsonProperty("lastModified") long lastModified) {
+        Statistics.Executions executions = statistics != null && statistics.executions != null
+            ? statistics.executions
+            : new Statistics.Executions();
+        this.id = id;
+        this.name = name.replace("Feature: ", "");
+        this.type = name.contains("NON-CR") ? FeatureType.NON_CR : FeatureType.CR;
+        this.path = path;
+        this.total = executions.total;
+        this.passed = executions.passed;
+        this.failed = executions.failed;
+        this.skipped = executions.skipped;
+        this.status = this.normalizeStatus(TestStatus.of(status));
+        this.lastModified = lastModified;
     }
 
-    public String getStatus() {
-        // Update status
-        if (this.statistics.executions.total == 0) this.status = "SKIPPED";
-        else if (this.statistics.executions.failed == 0 && this.statistics.executions.passed == 0) this.status = "SKIPPED";
-        else if (this.statistics.executions.failed == 0 && this.statistics.executions.passed > 0) this.status = "PASSED";
-
-        return this.status;
+    private TestStatus normalizeStatus(TestStatus status) {
+        if (this.total == 0) return TestStatus.SKIPPED;
+        if (this.failed == 0 && this.passed == 0) return TestStatus.SKIPPED;
+        if (this.failed == 0 && this.passed > 0) return TestStatus.PASSED;
+        return status;
     }
 
-    @Setter
-    @Getter
+    /**
+     * Statistics of the response, only read while the suite is deserialized
+     */
     @JsonIgnoreProperties(ignoreUnknown = true)
-    public static class Statistics {
+    static class Statistics {
         @JsonProperty("executions")
         Executions executions;
 
-        @Getter
-        @Setter
         @JsonIgnoreProperties(ignoreUnknown = true)
-        public static class Executions {
+        static class Executions {
             @JsonProperty("total")
             int total;
             @JsonProperty("failed")
@@ -1,30 +1,92 @@
 package excel.report.dto;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import enums.TestStatus;
+import helper.StringPool;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
-import lombok.val;
 
-@Setter
+/**
+ * Test of a suite
+ * <p>
+ * Immutable and compact: the issue is kept as its type and comment, which are pooled by the report, see StringPool
+ */
 @Getter
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Test {
-    @JsonProperty("status")
-    String status;
 
-    @JsonProperty("issue")
-    Issue issue;
+    final int id;
+    final String name;
+    final TestStatus status;
+    final long startTime;
+    final long endTime;
+    final String path;
+    final long lastModified;
+    // Null when the test has no issue
+    final String issueType;
+    final String issueComment;
+    @Getter(AccessLevel.NONE)
+    final boolean hasIssue;
 
+    /**
+     * @param stringPool Pool of the report, injected by PageReader, null to not pool the issue
+     */
+    @JsonCreator
+    public Test(@JsonProperty("id") int id, @JsonProperty("name") String name, @JsonProperty("status") String status,
+                @JsonProperty("startTime") long startTime, @JsonProperty("endTime") long endTime,
+                @JsonProperty("path") String path, @JsonProperty("lastModified") long lastModified,
+                @JsonProperty("issue") Issue issue, @JacksonInject StringPool stringPool) {
+        this.id = id;
+        this.name = name;
+        this.status = TestStatus.of(status);
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.path = path;
+        this.lastModified = lastModified;
+        this.hasIssue = issue != null;
+        this.issueType = issue == null ? null : StringPool.intern(stringPool, issue.issueType);
+        this.issueComment = issue == null ? null : StringPool.intern(stringPool, issue.comment);
+    }
+
+    /**
+     * Check whether the test has an issue
+     */
+    public boolean hasIssue() {
+        return this.hasIssue;
+    }
+
+    /**
+     * Get the comment of the issue prefixed by the status e.g. FAILED: Environment timeout, empty without comment
+     */
     public String getComment() {
-        val comment = this.getIssue().getComment();
-        return comment == null ? "" : this.getStatus() + ": " + comment;
+        return this.issueComment == null ? "" : this.status + ": " + this.issueComment;
     }
 
-    @Setter
-    @Getter
+    /**
+     * Get duration in milliseconds, 0 when the test hasn't ended
+     */
+    public long getDuration() {
+        return this.endTime > 0 ? this.endTime - this.startTime : 0;
+    }
+
+    /**
+     * Get path of the parent item e.g. 161810 of the test 161810.161811
+     */
+    public String getParentPath() {
+        return this.path.substring(0, Math.max(this.path.lastIndexOf('.'), 0));
+    }
+
+    /**
+     * Issue of the response, only read while the test is deserialized
+     */
     @JsonIgnoreProperties(ignoreUnknown = true)
-    public static class Issue {
+    static class Issue {
+        @JsonProperty("issueType")
+        String issueType;
+
         @JsonProperty("comment")
         String comment;
     }
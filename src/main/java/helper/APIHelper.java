@@ -1,61 +1,278 @@
 package helper;
 
+import enums.TransportMode;
+import excel.report.dto.Launch;
 import excel.report.dto.Suite;
 import excel.report.dto.Test;
-import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import lombok.SneakyThrows;
 
+import java.io.ByteArrayInputStream;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class APIHelper {
+/**
+ * Client of Report Portal's APIs
+ * <p>
+ * A client of a configuration shares its HTTP client, token, response cache and limits between its callers e.g. the
+ * launches of a batch. Nothing is requested before the first call. In record mode, the responses are saved to an
+ * archive, in replay mode they are served from it without calling Report Portal.
+ */
+public class APIHelper implements AutoCloseable {
 
-    private static final String OAUTH_PATH = Constants.OAUTH_PATH;
-    private static final String USERNAME = Constants.USERNAME;
-    private static final String PASSWORD = Constants.PASSWORD;
-    private static final String BASIC_AUTH = Constants.BASIC_AUTH;
-    private static final String TOKEN;
+    private static final String LAUNCH_IN_PROGRESS = "IN_PROGRESS";
+    private static final ExecutorService PREFETCH_POOL = Executors.newCachedThreadPool(
+        ThreadHelper.daemonThreadFactory("rp-prefetch")
+    );
 
-    static {
-        RestAssured.baseURI = Constants.REPORT_PORTAL_URL;
-        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-        TOKEN = getToken();
+    private final Config config;
+    private final HttpTransport transport;
+    // Null when the response cache is disabled or responses are recorded or replayed
+    private final ResponseCache responseCache;
+    // Null in live mode
+    private final ResponseArchive responseArchive;
+    // Whether a launch is finished, checked once per run by the first caller while the others wait for it
+    private final Map<String, CompletableFuture<Boolean>> finishedLaunches = new ConcurrentHashMap<>();
+    private final ResilientExecutor resilientExecutor;
+    // The token is fetched on the first request which isn't served by the response cache, unless it is cached on disk
+    private final TokenManager tokenManager;
+
+    /**
+     * @throws IllegalStateException when a property needed to call Report Portal is missing
+     */
+    public APIHelper(Config config) {
+        if (config.getTransportMode() != TransportMode.REPLAY) config.requireReportPortal();
+        this.config = config;
+        this.transport = new HttpTransport(
+            config.getReportPortalUrl(), config.getHttpMaxConnections(), config.getHttpMaxPerRoute(),
+            config.getHttpConnectTimeoutMs(), config.getHttpReadTimeoutMs()
+        );
+        this.responseCache = config.isCacheEnabled() && config.getTransportMode() == TransportMode.LIVE
+            ? new ResponseCache(
+                Paths.get(config.getCacheDir()), config.getReportPortalUrl(), config.getCacheMaxSizeMb() * 1024 * 1024
+            )
+            : null;
+        switch (config.getTransportMode()) {
+            case RECORD:
+                this.responseArchive = ResponseArchive.record(Paths.get(config.getTransportArchive()));
+                break;
+            case REPLAY:
+                this.responseArchive = ResponseArchive.replay(
+                    Paths.get(config.getTransportArchive()), config.getReplayLatencyMs()
+                );
+                break;
+            default:
+                this.responseArchive = null;
+        }
+        this.resilientExecutor = new ResilientExecutor(
+            config.getRetryMaxAttempts(), config.getRetryBaseDelayMs(), config.getRetryMaxDelayMs(),
+            config.getHttpMaxInFlight(), config.getCircuitFailureThreshold(), config.getCircuitOpenSeconds() * 1000L
+        );
+        this.tokenManager = new TokenManager(
+            config.getApiKey(),
+            config.getTokenFile() == null || config.getTokenFile().isEmpty() ? null : Paths.get(config.getTokenFile()),
+            config.getReportPortalUrl() + "|" + config.getUsername(), config.getTokenRefreshMarginSeconds(),
+            refreshToken -> Metrics.time("api.token", () -> this.requestToken(refreshToken))
+        );
     }
 
-    public static List<Suite> getSuites(Map<String, String> query) {
-        return RestAssured.given()
-            .basePath(Constants.PROJECT_PATH)
-            .auth().oauth2(TOKEN)
-            .queryParams(query)
-            .get()
-            .then().statusCode(200)
-            .extract().body().jsonPath().getList("content.", Suite.class);
+    /**
+     * Get suites of all pages
+     * <p>
+     * Pages are fetched lazily while the stream is consumed
+     *
+     * @param query Query without page.page, page.size defaults to page.size
+     */
+    public Stream<Suite> getSuites(Map<String, String> query) {
+        return this.getItems(this.config.getProjectPath(), query, Suite.class, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get tests of all pages
+     * <p>
+     * Pages are fetched lazily while the stream is consumed
+     *
+     * @param query      Query without page.page, page.size defaults to page.size
+     * @param stringPool Pool of the issues of the tests, see StringPool
+     */
+    public Stream<Test> getTests(Map<String, String> query, StringPool stringPool) {
+        return this.getItems(this.config.getProjectPath(), query, Test.class, stringPool, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the first launches
+     * <p>
+     * Pages are fetched lazily while the stream is consumed, no page beyond the limit is requested
+     *
+     * @param query Query without page.page, page.size defaults to the limit
+     * @param limit Max number of launches
+     */
+    public Stream<Launch> getLaunches(Map<String, String> query, int limit) {
+        Map<String, String> limitedQuery = new HashMap<>(query);
+        limitedQuery.putIfAbsent("page.size", String.valueOf(limit));
+        return this.getItems(this.config.getLaunchPath(), limitedQuery, Launch.class, null, limit);
+    }
+
+    @SneakyThrows
+    public Launch getLaunch(String launchId) {
+        String basePath = this.config.getLaunchPath() + "/" + launchId;
+        byte[] body = this.getBody("api.launch", basePath, Collections.emptyMap());
+        return PageReader.readItem(new ByteArrayInputStream(body), Launch.class);
+    }
+
+    private <T> Stream<T> getItems(String basePath, Map<String, String> query, Class<T> type,
+                                   StringPool stringPool, long limit) {
+        PageIterator<T> iterator = new PageIterator<>(
+            pageNumber -> this.getPage(basePath, query, pageNumber, type, stringPool), PREFETCH_POOL, limit
+        );
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    @SneakyThrows
+    private <T> Page<T> getPage(String basePath, Map<String, String> query, int pageNumber, Class<T> type,
+                                StringPool stringPool) {
+        Map<String, String> pageQuery = new HashMap<>(query);
+        pageQuery.put("page.page", String.valueOf(pageNumber));
+        pageQuery.putIfAbsent("page.size", this.config.getPageSize());
+
+        byte[] body = this.getBody("api." + type.getSimpleName().toLowerCase(), basePath, pageQuery);
+        return PageReader.read(new ByteArrayInputStream(body), type, stringPool);
     }
 
-    public static List<Test> getTests(Map<String, String> query) {
-        return RestAssured.given()
-            .basePath(Constants.PROJECT_PATH)
-            .auth().oauth2(TOKEN)
-            .queryParams(query)
-            .get()
+    /**
+     * Get body of a response
+     * <p>
+     * Responses of the finished launch in filter.eq.launchId are served from and saved to the response cache.
+     * Transient failures are retried, see ResilientExecutor
+     *
+     * @param endpoint Endpoint name of the metrics e.g. api.suite
+     */
+    private byte[] getBody(String endpoint, String basePath, Map<String, String> query) {
+        if (this.config.getTransportMode() == TransportMode.REPLAY) {
+            Metrics.count("api.replayed");
+            return Metrics.time(endpoint, () -> this.responseArchive.get(basePath, query));
+        }
+
+        String launchId = query.get("filter.eq.launchId");
+        boolean cacheable = this.responseCache != null && launchId != null && this.isLaunchFinished(launchId);
+        if (cacheable) {
+            byte[] cachedBody = this.responseCache.get(basePath, query);
+            if (cachedBody != null) {
+                Metrics.count("api.cache.hits");
+                return cachedBody;
+            }
+        }
+
+        long start = System.nanoTime();
+        byte[] body = this.executeAuthorized(authToken -> this.transport.request()
+                .basePath(basePath)
+                .auth().oauth2(authToken)
+                .queryParams(query)
+                .get())
             .then().statusCode(200)
-            .extract().body().jsonPath().getList("content.", Test.class);
+            .extract().body().asByteArray();
+        long latency = System.nanoTime() - start;
+        Metrics.record(endpoint, latency);
+        if (cacheable) this.responseCache.put(basePath, query, body);
+        if (this.responseArchive != null) this.responseArchive.put(basePath, query, body, latency);
+        return body;
+    }
+
+    /**
+     * Check whether a launch is finished
+     * <p>
+     * Finished launches are remembered by the response cache, running launches are checked once per run
+     */
+    private boolean isLaunchFinished(String launchId) {
+        if (this.responseCache.isLaunchFinished(launchId)) return true;
+        CompletableFuture<Boolean> check = new CompletableFuture<>();
+        CompletableFuture<Boolean> existingCheck = this.finishedLaunches.putIfAbsent(launchId, check);
+        if (existingCheck != null) return existingCheck.join();
+
+        // The launch is requested outside of the map, the request may take seconds with its retries
+        try {
+            boolean finished = !LAUNCH_IN_PROGRESS.equals(this.getLaunch(launchId).getStatus());
+            if (finished) this.responseCache.markLaunchFinished(launchId);
+            check.complete(finished);
+            return finished;
+        } catch (Throwable e) {
+            // The next caller checks again
+            this.finishedLaunches.remove(launchId, check);
+            check.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Complete the recording of a successful run, see ResponseArchive.commit
+     */
+    public void commit() {
+        if (this.responseArchive != null) this.responseArchive.commit();
     }
 
-    private static String getToken() {
+    /**
+     * Close the client, a recording which hasn't been committed is discarded
+     */
+    @Override
+    public void close() {
+        if (this.responseArchive != null) this.responseArchive.close();
+    }
+
+    /**
+     * Execute a request with the token
+     * <p>
+     * A rejected token e.g. revoked since it was cached is replaced once
+     *
+     * @param request Request by the token
+     */
+    private Response executeAuthorized(Function<String, Response> request) {
+        String authToken = this.tokenManager.getToken();
+        Response response = this.resilientExecutor.execute(() -> request.apply(authToken));
+        if (response.statusCode() != 401 || !this.tokenManager.invalidate(authToken)) return response;
+
+        String newAuthToken = this.tokenManager.getToken();
+        return this.resilientExecutor.execute(() -> request.apply(newAuthToken));
+    }
+
+    /**
+     * Request a token
+     *
+     * @param refreshToken Refresh token, null to log in with the credentials
+     */
+    private TokenManager.Token requestToken(String refreshToken) {
         Map<String, String> formParams = new HashMap<>();
-        formParams.put("grant_type", "password");
-        formParams.put("username", USERNAME);
-        formParams.put("password", PASSWORD);
-
-        return RestAssured.given()
-            .basePath(OAUTH_PATH)
-            .contentType(ContentType.URLENC)
-            .header("Authorization", BASIC_AUTH)
-            .formParams(formParams)
-            .post()
+        if (refreshToken == null) {
+            formParams.put("grant_type", "password");
+            formParams.put("username", this.config.getUsername());
+            formParams.put("password", this.config.getPassword());
+        } else {
+            formParams.put("grant_type", "refresh_token");
+            formParams.put("refresh_token", refreshToken);
+        }
+
+        JsonPath body = this.resilientExecutor.execute(() -> this.transport.request()
+                .basePath(this.config.getOauthPath())
+                .contentType(ContentType.URLENC)
+                .header("Authorization", this.config.getBasicAuth())
+                .formParams(formParams)
+                .post())
             .then().statusCode(200)
-            .extract().body().jsonPath().getString("access_token");
+            .extract().body().jsonPath();
+        return TokenManager.Token.of(
+            body.getString("access_token"), body.getString("refresh_token"), body.getObject("expires_in", Long.class)
+        );
     }
 }
@@ -0,0 +1,266 @@
+package helper;
+
+import enums.ReportFormat;
+import enums.StatusFormat;
+import enums.TransportMode;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configuration of a run
+ * <p>
+ * Immutable and typed, a profile is loaded on its first use and validated once. System properties override the
+ * profile's properties e.g. staging.properties, which override default.properties. Several profiles can be used in one
+ * process, each one is loaded once.
+ */
+@Getter
+public class Config {
+    private static final String DEFAULT_PROFILE = "default";
+    private static final Map<String, Config> PROFILES = new ConcurrentHashMap<>();
+
+    private final String profile;
+
+    private final String launchId;
+    private final String launchIds;
+    private final String projectPath;
+    private final String launchPath;
+    private final String reportPortalUrl;
+    private final String oauthPath;
+    private final String username;
+    private final String password;
+    private final String basicAuth;
+    private final String apiKey;
+    private final String tokenFile;
+    private final long tokenRefreshMarginSeconds;
+
+    private final String reportTemplateFile;
+    private final String reportFile;
+    private final ReportFormat reportFormat;
+    private final String pageSize;
+    private final String metricsFile;
+
+    // Trend
+    private final int trendLaunches;
+    private final String trendLaunchName;
+
+    // Details
+    private final boolean detailsSheet;
+
+    // Batch
+    private final int batchConcurrency;
+
+    // Incremental
+    private final boolean incremental;
+
+    // Excel
+    private final boolean excelStreaming;
+    private final int excelRowWindow;
+    private final StatusFormat statusFormat;
+
+    // Fetching
+    private final int fetchConcurrency;
+    private final int fetchTimeoutSeconds;
+    private final int pipelineCapacity;
+    private final boolean commentAggregation;
+
+    // HTTP
+    private final int httpMaxConnections;
+    private final int httpMaxPerRoute;
+    private final int httpConnectTimeoutMs;
+    private final int httpReadTimeoutMs;
+
+    // Resilience
+    private final int httpMaxInFlight;
+    private final int retryMaxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final int circuitFailureThreshold;
+    private final int circuitOpenSeconds;
+
+    // Record and replay
+    private final TransportMode transportMode;
+    private final String transportArchive;
+    private final long replayLatencyMs;
+
+    // Response cache
+    private final boolean cacheEnabled;
+    private final String cacheDir;
+    private final long cacheMaxSizeMb;
+
+    // Errors found while the properties are parsed
+    @Getter(AccessLevel.NONE)
+    private final List<String> errors = new ArrayList<>();
+
+    private Config(String profile) {
+        this.profile = profile;
+
+        this.launchId = this.getString("launch.id", null);
+        this.launchIds = this.getString("launch.ids", null);
+        this.projectPath = this.getString("project.path", null);
+        this.launchPath = this.getString("launch.path", null);
+        this.reportPortalUrl = this.getString("report.portal.url", null);
+        this.oauthPath = this.getString("oauth.path", null);
+        this.username = this.getString("credentials.username", null);
+        this.password = this.getString("credentials.password", null);
+        this.basicAuth = this.getString("basic.auth", null);
+        this.apiKey = this.getString("api.key", null);
+        // The token grants access to Report Portal, it's cached in the user's home rather than next to the reports
+        this.tokenFile = this.getString("token.file",
+            Paths.get(System.getProperty("user.home"), ".reportportalutil", "token.json").toString());
+        this.tokenRefreshMarginSeconds = this.getLong("token.refresh.margin.seconds", "300", 0);
+
+        this.reportTemplateFile = this.getString("report.template.file", null);
+        this.reportFile = this.getString("report.file", null);
+        this.reportFormat = this.getEnum("report.format", "xlsx", ReportFormat.class);
+        this.pageSize = String.valueOf(this.getInt("page.size", "100", 1));
+        this.metricsFile = this.getString("metrics.file", null);
+
+        this.trendLaunches = this.getInt("trend.launches", "0", 0);
+        this.trendLaunchName = this.getString("trend.launch.name", null);
+
+        this.detailsSheet = this.getBoolean("details.sheet", "false");
+
+        this.batchConcurrency = this.getInt("batch.concurrency", "2", 1);
+
+        this.incremental = this.getBoolean("incremental", "false");
+
+        this.excelStreaming = this.getBoolean("excel.streaming", "false");
+        this.excelRowWindow = this.getInt("excel.row.window", "100", 1);
+        this.statusFormat = this.getEnum("status.format", "rules", StatusFormat.class);
+
+        this.fetchConcurrency = this.getInt("fetch.concurrency", "8", 1);
+        this.fetchTimeoutSeconds = this.getInt("fetch.timeout.seconds", "60", 1);
+        this.pipelineCapacity = this.getInt("pipeline.capacity", "64", 1);
+        this.commentAggregation = this.getBoolean("comment.aggregation", "true");
+
+        this.httpMaxConnections = this.getInt("http.max.connections", "32", 1);
+        this.httpMaxPerRoute = this.getInt("http.max.per.route", "16", 1);
+        this.httpConnectTimeoutMs = this.getInt("http.connect.timeout.ms", "10000", 0);
+        this.httpReadTimeoutMs = this.getInt("http.read.timeout.ms", "60000", 0);
+
+        this.httpMaxInFlight = this.getInt("http.max.in.flight", "16", 1);
+        this.retryMaxAttempts = this.getInt("retry.max.attempts", "5", 1);
+        this.retryBaseDelayMs = this.getLong("retry.base.delay.ms", "500", 0);
+        this.retryMaxDelayMs = this.getLong("retry.max.delay.ms", "30000", 0);
+        this.circuitFailureThreshold = this.getInt("circuit.failure.threshold", "10", 1);
+        this.circuitOpenSeconds = this.getInt("circuit.open.seconds", "30", 0);
+
+        this.transportMode = this.getEnum("transport.mode", "live", TransportMode.class);
+        this.transportArchive = this.getString("transport.archive", "output/recording.zip");
+        this.replayLatencyMs = this.getLong("replay.latency.ms", "0", -1);
+
+        this.cacheEnabled = this.getBoolean("cache.enabled", "true");
+        this.cacheDir = this.getString("cache.dir", "output/cache");
+        this.cacheMaxSizeMb = this.getLong("cache.max.size.mb", "512", 1);
+
+        if (!this.errors.isEmpty())
+            throw new IllegalArgumentException(String.format("Invalid properties of profile %s: %s", profile,
+                String.join(", ", this.errors)));
+    }
+
+    /**
+     * Get the configuration of the profile in the profile system property, or of the default properties
+     */
+    public static Config getDefault() {
+        return get(System.getProperty("profile", DEFAULT_PROFILE));
+    }
+
+    /**
+     * Get the configuration of a profile, loaded on the first call
+     *
+     * @param profile Profile e.g. staging for staging.properties
+     * @throws IllegalArgumentException when a property is invalid
+     */
+    public static Config get(String profile) {
+        return PROFILES.computeIfAbsent(profile, Config::new);
+    }
+
+    /**
+     * Check the properties needed to call Report Portal
+     *
+     * @throws IllegalStateException when one is missing or project.path has no project
+     */
+    public void requireReportPortal() {
+        List<String> missing = new ArrayList<>();
+        if (isBlank(this.reportPortalUrl)) missing.add("report.portal.url");
+        if (isBlank(this.projectPath)) missing.add("project.path");
+        if (isBlank(this.launchPath)) missing.add("launch.path");
+        if (isBlank(this.apiKey) && (isBlank(this.oauthPath) || isBlank(this.username) || isBlank(this.password)))
+            missing.add("api.key or oauth.path, credentials.username and credentials.password");
+        if (!missing.isEmpty())
+            throw new IllegalStateException(String.format("Missing properties of profile %s: %s", this.profile,
+                String.join(", ", missing)));
+        this.getProjectName();
+    }
+
+    /**
+     * Get the project of project.path, the segment before /item e.g. my_project of /api/v1/my_project/item
+     *
+     * @throws IllegalStateException when project.path has no project segment
+     */
+    public String getProjectName() {
+        String projectPath = this.projectPath == null ? "" : this.projectPath.trim().replaceAll("/+$", "");
+        int itemIdx = projectPath.lastIndexOf('/');
+        String project = itemIdx <= 0
+            ? ""
+            : projectPath.substring(projectPath.lastIndexOf('/', itemIdx - 1) + 1, itemIdx);
+        if (project.isEmpty())
+            throw new IllegalStateException(String.format(
+                "project.path=%s of profile %s must end with /<project>/item e.g. /api/v1/my_project/item",
+                this.projectPath, this.profile));
+        return project;
+    }
+
+    private String getString(String key, String defaultValue) {
+        String profile = DEFAULT_PROFILE.equals(this.profile) ? null : this.profile;
+        return PropertiesHelper.getPropValue(profile, key, defaultValue);
+    }
+
+    private int getInt(String key, String defaultValue, int min) {
+        return (int) this.getLong(key, defaultValue, min, Integer.MAX_VALUE);
+    }
+
+    private long getLong(String key, String defaultValue, long min) {
+        return this.getLong(key, defaultValue, min, Long.MAX_VALUE);
+    }
+
+    private long getLong(String key, String defaultValue, long min, long max) {
+        String value = this.getString(key, defaultValue);
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number >= min && number <= max) return number;
+        } catch (NumberFormatException ignored) {
+        }
+        this.errors.add(String.format("%s=%s must be a number from %d to %d", key, value, min, max));
+        return Long.parseLong(defaultValue);
+    }
+
+    private boolean getBoolean(String key, String defaultValue) {
+        String value = this.getString(key, defaultValue).trim();
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value))
+            this.errors.add(String.format("%s=%s must be true or false", key, value));
+        return Boolean.parseBoolean(value);
+    }
+
+    private <E extends Enum<E>> E getEnum(String key, String defaultValue, Class<E> type) {
+        String value = this.getString(key, defaultValue);
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            this.errors.add(String.format("%s=%s must be one of %s", key, value,
+                Arrays.toString(type.getEnumConstants()).toLowerCase()));
+            return Enum.valueOf(type, defaultValue.toUpperCase());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -7,37 +7,119 @@ import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ExcelHelper {
+    // Templates by absolute path, read once per JVM
+    private static final Map<Path, byte[]> TEMPLATES = new ConcurrentHashMap<>();
+
+    static {
+        //by pass large file exception from POI
+        ZipSecureFile.setMinInflateRatio(0);
+    }
+
     private final Workbook wb;
     @Getter
     private final String filePath;
-
+    @Getter
+    private final boolean streaming;
+    // Cell styles are interned, a workbook gets one style per combination of defined styles
+    private final Map<EnumSet<DefinedCellStyle>, CellStyle> cellStyles = new HashMap<>();
+    // Sheets created by this helper, the only sheets streamed in streaming mode
+    private final Set<String> createdSheets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Open an Excel file
+     * <p>
+     * In streaming mode, the file is used as the template of an SXSSFWorkbook that keeps only the last rowWindow
+     * rows of each new sheet in memory, older rows are flushed to temp files and can't be read back. The sheets of the
+     * file are kept in memory, their rows can be rewritten but only by one thread at a time
+     *
+     * @param filePath  Excel file, a new workbook is created when it doesn't exist
+     * @param readOnly  Fail when the file doesn't exist
+     * @param rowWindow Number of rows kept in memory per sheet, 0 to keep all rows i.e. non-streaming mode
+     */
     @SneakyThrows
-    public ExcelHelper(String filePath, boolean readOnly) {
+    public ExcelHelper(String filePath, boolean readOnly, int rowWindow) {
         this.filePath = filePath;
+        this.streaming = rowWindow > 0;
+        if (readOnly && this.streaming) throw new IllegalArgumentException("Streaming mode is write only");
+
+        XSSFWorkbook workbook;
         File excelFile = new File(filePath);
         if (!excelFile.exists()) {
             // in read only mode, just read, don't create
             if (readOnly) throw new IOException(String.format("File not found: %s", filePath));
-            wb = new XSSFWorkbook();
+            workbook = new XSSFWorkbook();
         } else {
-            FileInputStream fis = new FileInputStream(filePath);
-            //by pass large file exception from POI
-            ZipSecureFile.setMinInflateRatio(0);
-            wb = new XSSFWorkbook(fis);
-            fis.close();
+            try (InputStream in = new BufferedInputStream(new FileInputStream(filePath))) {
+                workbook = new XSSFWorkbook(in);
+            }
         }
+        wb = this.streaming ? new SXSSFWorkbook(workbook, rowWindow) : workbook;
+    }
+
+    /**
+     * Create an Excel file from a template
+     * <p>
+     * The template is parsed from memory, the file is only written when the workbook is saved
+     *
+     * @param filePath  Excel file to save to, replaced when it exists
+     * @param template  Template, see readTemplate
+     * @param rowWindow Number of rows kept in memory per sheet, 0 to keep all rows i.e. non-streaming mode
+     */
+    @SneakyThrows
+    public ExcelHelper(String filePath, byte[] template, int rowWindow) {
+        this.filePath = filePath;
+        this.streaming = rowWindow > 0;
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(template));
+        wb = this.streaming ? new SXSSFWorkbook(workbook, rowWindow) : workbook;
+    }
+
+    /**
+     * Read a template, a template is read once and shared by the reports of the JVM
+     *
+     * @param templateFile Template file e.g. report-template/ExcelTemplate.xlsx
+     */
+    public static byte[] readTemplate(Path templateFile) {
+        return TEMPLATES.computeIfAbsent(templateFile.toAbsolutePath().normalize(), ExcelHelper::readAllBytes);
+    }
+
+    @SneakyThrows
+    private static byte[] readAllBytes(Path file) {
+        return Files.readAllBytes(file);
+    }
+
+    public ExcelHelper(String filePath, boolean readOnly) {
+        this(filePath, readOnly, 0);
+    }
+
+    public ExcelHelper(String filePath, int rowWindow) {
+        this(filePath, false, rowWindow);
     }
 
     public ExcelHelper(String filePath) {
@@ -60,7 +142,14 @@ public class ExcelHelper {
         return wb.getSheetIndex(sheetName);
     }
 
-    private Sheet getSheet(String sheetName) {
+    /**
+     * Get a sheet
+     * <p>
+     * In streaming mode, a sheet of the opened file is its underlying XSSF sheet, streamed sheets can only append rows
+     */
+    public Sheet getSheet(String sheetName) {
+        if (this.streaming && !this.createdSheets.contains(sheetName))
+            return ((SXSSFWorkbook) wb).getXSSFWorkbook().getSheet(sheetName);
         return wb.getSheet(sheetName);
     }
 
@@ -74,13 +163,19 @@ public class ExcelHelper {
 
     public void createSheet(String sheetName) {
         wb.createSheet(sheetName);
+        this.createdSheets.add(sheetName);
     }
 
     public void createSheet(String sheetName, int at) {
-        wb.createSheet(sheetName);
+        createSheet(sheetName);
         wb.setSheetOrder(sheetName, at);
     }
 
+    public void removeSheet(String sheetName) {
+        wb.removeSheetAt(getSheetIndex(sheetName));
+        this.createdSheets.remove(sheetName);
+    }
+
     public void createRows(String sheetName, int startingRowIdx, Map<Integer, List<String>> data) {
         for (Map.Entry<Integer, List<String>> entry : data.entrySet()) {
             createRow(sheetName, startingRowIdx, entry.getValue());
@@ -109,6 +204,8 @@ public class ExcelHelper {
             newCell.setCellValue(cellValue);
             cellIndex++;
         }
+        Metrics.count("excel.rows.written");
+        Metrics.count("excel.cells.written", rowData.size());
     }
 
     public void createRowWithFormat(String sheetName, int rowIdx, int startingColIdx, List<String> rowData,
@@ -123,11 +220,19 @@ public class ExcelHelper {
             setCellStyle(cell, cellStyles);
             colIdx++;
         }
+        Metrics.count("excel.rows.written");
+        Metrics.count("excel.cells.written", rowData.size());
     }
 
+    /**
+     * Format cells of a row
+     * <p>
+     * In streaming mode, only rows still in the row window can be formatted
+     *
+     * @throws IllegalStateException when the row has been flushed
+     */
     public void formatRow(String sheetName, int rowIdx, List<DefinedCellStyle> cellStyles) {
-        Sheet sheet = getSheet(sheetName);
-        Row row = sheet.getRow(rowIdx);
+        Row row = getRowInMemory(getSheet(sheetName), rowIdx);
         Iterator<Cell> cellIterator = row.cellIterator();
         while (cellIterator.hasNext()) {
             Cell cell = cellIterator.next();
@@ -135,10 +240,57 @@ public class ExcelHelper {
         }
     }
 
+    /**
+     * Format a cell, replacing its style
+     * <p>
+     * In streaming mode, only rows still in the row window can be formatted
+     *
+     * @throws IllegalStateException when the row has been flushed
+     */
+    public void formatCell(String sheetName, int rowIdx, int colIdx, List<DefinedCellStyle> cellStyles) {
+        setCellStyle(getRowInMemory(getSheet(sheetName), rowIdx).getCell(colIdx), cellStyles);
+    }
+
+    /**
+     * Write a link into a cell of a row
+     * <p>
+     * The link is a HYPERLINK formula, unlike hyperlink objects it's flushed with its row in streaming mode
+     *
+     * @throws IllegalStateException when the row has been flushed
+     */
+    public void createLinkCell(String sheetName, int rowIdx, int colIdx, String url, String label,
+                               List<DefinedCellStyle> cellStyles) {
+        Cell cell = getRowInMemory(getSheet(sheetName), rowIdx).createCell(colIdx);
+        cell.setCellFormula(String.format("HYPERLINK(\"%s\",\"%s\")", url.replace("\"", "\"\""),
+            label.replace("\"", "\"\"")));
+        setCellStyle(cell, cellStyles);
+    }
+
+    /**
+     * Group a row under the row above it, adjacent grouped rows form one group
+     * <p>
+     * In streaming mode, only rows still in the row window can be grouped
+     */
+    public void groupRow(String sheetName, int rowIdx) {
+        Sheet sheet = getSheet(sheetName);
+        // The row above a group shows its expand button
+        sheet.setRowSumsBelow(false);
+        if (sheet instanceof SXSSFSheet) ((SXSSFSheet) sheet).setRowOutlineLevel(rowIdx, 1);
+        else sheet.groupRow(rowIdx, rowIdx);
+    }
+
+    /**
+     * Auto size columns of a sheet
+     * <p>
+     * In streaming mode, only rows still in the row window are measured
+     */
     public void autoSizeColumn(String sheetName, int rowIdx) {
         int numberOfColumn = getNumberOfColumns(sheetName, rowIdx);
+        Sheet sheet = getSheet(sheetName);
+        // Tracking columns of every written row is costly, they are tracked from the rows in memory
+        if (sheet instanceof SXSSFSheet) ((SXSSFSheet) sheet).trackAllColumnsForAutoSizing();
         for (int i = 0; i < numberOfColumn; i++)
-            getSheet(sheetName).autoSizeColumn(i);
+            sheet.autoSizeColumn(i);
     }
 
     public void setColumnWidth(String sheetName, int fromColumnIdx, List<Integer> widthList) {
@@ -149,6 +301,11 @@ public class ExcelHelper {
         }
     }
 
+    /**
+     * Get the number of rows before the first empty row
+     * <p>
+     * In streaming mode, flushed rows can't be read back, the number of rows is the index of the last written row + 1
+     */
     public int getNumberOfRows(int sheetIdx) {
         return getNumberOfRows(getSheet(sheetIdx));
     }
@@ -158,6 +315,11 @@ public class ExcelHelper {
     }
 
     private int getNumberOfRows(Sheet sheet) {
+        if (sheet instanceof SXSSFSheet) {
+            // Rows of template sheets live in the underlying XSSF sheet
+            Sheet templateSheet = ((SXSSFWorkbook) wb).getXSSFWorkbook().getSheet(sheet.getSheetName());
+            return Math.max(sheet.getLastRowNum(), templateSheet.getLastRowNum()) + 1;
+        }
         int i = 0;
         while (i <= sheet.getLastRowNum()) {
             Row row = sheet.getRow(i);
@@ -178,23 +340,68 @@ public class ExcelHelper {
         return i;
     }
 
+    /**
+     * Write the workbook to a temp file next to the file then rename it to the file
+     * <p>
+     * Readers of the file see the previous file or the complete new file, never a partly written one
+     */
     private void writeToFile(String fileName) throws IOException {
-        FileOutputStream fileOut = new FileOutputStream(fileName);
-        wb.write(fileOut);
-        fileOut.close();
+        Path file = Paths.get(fileName);
+        Path tempFile = FileHelper.createTempFile(file);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16)) {
+                wb.write(out);
+            }
+            FileHelper.replace(tempFile, file);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
     }
 
     public int getNumberOfColumns(String sheetName, int rowIdx) {
-        Sheet sheet = getSheet(sheetName);
-        return sheet.getRow(rowIdx).getPhysicalNumberOfCells();
+        return getRowInMemory(getSheet(sheetName), rowIdx).getPhysicalNumberOfCells();
+    }
+
+    private Row getRowInMemory(Sheet sheet, int rowIdx) {
+        Row row = sheet.getRow(rowIdx);
+        if (row == null && sheet instanceof SXSSFSheet && rowIdx <= sheet.getLastRowNum())
+            throw new IllegalStateException(String.format(
+                "Row %d of sheet %s has been flushed, increase excel.row.window", rowIdx, sheet.getSheetName()
+            ));
+        return row;
     }
 
     public void saveAndClose() throws IOException {
         assert wb != null;
+        long start = System.nanoTime();
         writeToFile(this.filePath);
+        Metrics.record("excel.save", System.nanoTime() - start);
+        // Delete temp files of the flushed rows
+        if (this.streaming) ((SXSSFWorkbook) wb).dispose();
         wb.close();
     }
 
+    /**
+     * Close the workbook without saving it, the file is left as it was
+     * <p>
+     * In streaming mode, the temp files of the flushed rows are deleted
+     */
+    public void discard() {
+        if (this.streaming) ((SXSSFWorkbook) wb).dispose();
+        try {
+            wb.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close the workbook of " + this.filePath + ": " + e);
+        }
+    }
+
+    /**
+     * Get the number of cell styles created by this helper, the template's own styles are not counted
+     */
+    public int getNumberOfCreatedStyles() {
+        return cellStyles.size();
+    }
+
     public CellStyle createCellStyle(CellStyle cellStyle, DefinedCellStyle styleName) {
         switch (styleName) {
             case WRAP_TEXT:
@@ -212,6 +419,18 @@ public class ExcelHelper {
                 cellStyle.setFillForegroundColor(IndexedColors.PALE_BLUE.getIndex());
                 cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
                 break;
+            case SET_COLOR_RED:
+                cellStyle.setFillForegroundColor(IndexedColors.RED.getIndex());
+                cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                break;
+            case SET_COLOR_GREEN:
+                cellStyle.setFillForegroundColor(IndexedColors.GREEN.getIndex());
+                cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                break;
+            case SET_COLOR_BLUE_GREY:
+                cellStyle.setFillForegroundColor(IndexedColors.BLUE_GREY.getIndex());
+                cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                break;
             case BORDER_ALL:
                 cellStyle.setBorderBottom(BorderStyle.THIN);
                 cellStyle.setBorderTop(BorderStyle.THIN);
@@ -223,20 +442,42 @@ public class ExcelHelper {
                 break;
             case TOP_ALIGN:
                 cellStyle.setVerticalAlignment(VerticalAlignment.TOP);
+                break;
+            case LINK:
+                Font font = wb.createFont();
+                font.setUnderline(Font.U_SINGLE);
+                font.setColor(IndexedColors.BLUE.getIndex());
+                cellStyle.setFont(font);
         }
         return cellStyle;
     }
 
     public void setCellStyle(Cell cell, DefinedCellStyle style) {
-        CellStyle cellStyle = wb.createCellStyle();
-        cell.setCellStyle(createCellStyle(cellStyle, style));
+        cell.setCellStyle(getCellStyle(Collections.singleton(style)));
     }
 
     public void setCellStyle(Cell cell, List<DefinedCellStyle> styles) {
-        CellStyle cellStyle = wb.createCellStyle();
-        for (DefinedCellStyle style : styles) {
-            createCellStyle(cellStyle, style);
-        }
-        cell.setCellStyle(cellStyle);
+        cell.setCellStyle(getCellStyle(styles));
+    }
+
+    /**
+     * Get the cell style of a combination of defined styles
+     * <p>
+     * The style is created once per workbook, the defined styles are applied in their declaration order. Sheets written
+     * by several threads share the styles, they're created one at a time
+     *
+     * @param styles Defined styles, duplicates and order are ignored
+     */
+    public synchronized CellStyle getCellStyle(Collection<DefinedCellStyle> styles) {
+        EnumSet<DefinedCellStyle> key = EnumSet.noneOf(DefinedCellStyle.class);
+        key.addAll(styles);
+        return cellStyles.computeIfAbsent(key, k -> {
+            CellStyle cellStyle = wb.createCellStyle();
+            for (DefinedCellStyle style : k) {
+                createCellStyle(cellStyle, style);
+            }
+            Metrics.count("excel.styles.created");
+            return cellStyle;
+        });
     }
 }
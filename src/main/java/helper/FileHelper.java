@@ -0,0 +1,59 @@
+package helper;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class FileHelper {
+
+    /**
+     * Create a temp file next to a file, the temp file can replace the file atomically
+     * <p>
+     * Unlike Files.createTempFile, the temp file gets the default permissions, which the file keeps once replaced
+     *
+     * @param file File e.g. output/FeaturesResult.xlsx
+     * @return Temp file e.g. output/.FeaturesResult.xlsx.5f3a9c2e.tmp
+     */
+    public static Path createTempFile(Path file) throws IOException {
+        Path absoluteFile = file.toAbsolutePath();
+        Files.createDirectories(absoluteFile.getParent());
+        while (true) {
+            Path tempFile = absoluteFile.resolveSibling(String.format(".%s.%08x.tmp", absoluteFile.getFileName(),
+                ThreadLocalRandom.current().nextInt()));
+            try {
+                return Files.createFile(tempFile);
+            } catch (FileAlreadyExistsException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Replace a file by a temp file
+     * <p>
+     * Readers of the file see the previous file or the complete new file, never a partly written one
+     */
+    public static void replace(Path tempFile, Path file) throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Delete a temp file which won't replace its file e.g. of a failed report
+     * <p>
+     * A failure is reported but not thrown, the temp file is hidden and doesn't replace anything
+     */
+    public static void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + tempFile + ": " + e);
+        }
+    }
+}
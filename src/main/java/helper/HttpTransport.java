@@ -0,0 +1,126 @@
+package helper;
+
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+
+/**
+ * HTTP transport of Report Portal's APIs
+ * <p>
+ * Every request of a transport goes through one pooled HTTP client, connections are kept alive between requests and
+ * responses are gzipped. The client is shared by the threads of a run, so it's configured once when it's created:
+ * Rest Assured neither sets parameters nor swaps content decoders of the client on every request.
+ * <p>
+ * The bytes of the responses are counted as they're received, before they're decoded, see api.bytes.received
+ */
+public class HttpTransport {
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String GZIP = "gzip";
+
+    private final String baseUri;
+    private final RestAssuredConfig config;
+
+    /**
+     * @param baseUri          URL of Report Portal
+     * @param maxConnections   Max connections of the pool
+     * @param maxPerRoute      Max connections per host
+     * @param connectTimeoutMs Connect timeout in milliseconds
+     * @param readTimeoutMs    Read timeout in milliseconds
+     */
+    public HttpTransport(String baseUri, int maxConnections, int maxPerRoute, int connectTimeoutMs, int readTimeoutMs) {
+        this.baseUri = baseUri;
+        this.config = RestAssuredConfig.config()
+            .httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> createHttpClient(maxConnections, maxPerRoute, connectTimeoutMs, readTimeoutMs))
+                .withParams(Collections.emptyMap()))
+            // The client decodes the gzipped responses
+            .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+    }
+
+    /**
+     * Create a request using the pooled HTTP client
+     */
+    public RequestSpecification request() {
+        return RestAssured.given().config(this.config).baseUri(this.baseUri).log().ifValidationFails();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static org.apache.http.impl.client.DefaultHttpClient createHttpClient(
+        int maxConnections, int maxPerRoute, int connectTimeoutMs, int readTimeoutMs) {
+        // Rest Assured only accepts the AbstractHttpClient API of HttpClient 4, its deprecated types are fully qualified
+        // so only this method uses them
+        org.apache.http.impl.conn.PoolingClientConnectionManager connectionManager =
+            new org.apache.http.impl.conn.PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        org.apache.http.impl.client.DefaultHttpClient httpClient =
+            new org.apache.http.impl.client.DefaultHttpClient(connectionManager);
+        httpClient.setReuseStrategy(new DefaultConnectionReuseStrategy());
+        httpClient.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy());
+        // Sends Accept-Encoding: gzip and decodes the gzipped responses. Unlike ResponseContentEncoding, the headers are
+        // kept: the connection of a response without Content-Length wouldn't be reused
+        httpClient.addRequestInterceptor((request, context) -> {
+            if (!request.containsHeader(ACCEPT_ENCODING)) request.addHeader(ACCEPT_ENCODING, GZIP);
+        });
+        httpClient.addResponseInterceptor((response, context) -> {
+            if (response.getEntity() == null) return;
+            HttpEntity entity = new CountingEntity(response.getEntity());
+            Header contentEncoding = entity.getContentEncoding();
+            if (contentEncoding != null && GZIP.equalsIgnoreCase(contentEncoding.getValue()))
+                entity = new GzipDecompressingEntity(entity);
+            response.setEntity(entity);
+        });
+
+        org.apache.http.params.HttpParams params = httpClient.getParams();
+        org.apache.http.params.HttpConnectionParams.setConnectionTimeout(params, connectTimeoutMs);
+        org.apache.http.params.HttpConnectionParams.setSoTimeout(params, readTimeoutMs);
+        org.apache.http.params.HttpConnectionParams.setSoKeepalive(params, true);
+        // Rest Assured's default
+        org.apache.http.client.params.HttpClientParams.setCookiePolicy(
+            params, org.apache.http.client.params.CookiePolicy.IGNORE_COOKIES);
+        return httpClient;
+    }
+
+    /**
+     * Entity counting the bytes read from the connection into api.bytes.received
+     */
+    private static class CountingEntity extends HttpEntityWrapper {
+        CountingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) Metrics.count("api.bytes.received");
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) Metrics.count("api.bytes.received", n);
+                    return n;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.SneakyThrows;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of a generation run
+ * <p>
+ * Counters e.g. rows written and timers e.g. latency of an API endpoint, timers keep a histogram of power of two
+ * millisecond buckets. Metrics are global and thread safe, a batch run reports the metrics of all its launches.
+ */
+public class Metrics {
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+
+    public static void count(String name) {
+        count(name, 1);
+    }
+
+    public static void count(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Get the value of a counter, 0 when nothing has been counted
+     */
+    static long getCount(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public static void record(String name, long nanos) {
+        TIMERS.computeIfAbsent(name, k -> new Timer()).record(nanos);
+    }
+
+    public static <T> T time(String name, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    public static void time(String name, Runnable action) {
+        time(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static void printSummary(PrintStream out) {
+        out.println("Metrics:");
+        COUNTERS.forEach((name, counter) -> out.printf("  %-28s %d%n", name, counter.sum()));
+        TIMERS.forEach((name, timer) -> out.printf(
+            "  %-28s count=%d total=%dms mean=%.1fms p50<=%dms p95<=%dms p99<=%dms max=%dms%n",
+            name, timer.count.sum(), toMillis(timer.totalNanos.sum()), timer.getMeanMillis(),
+            timer.getPercentileMillis(0.50), timer.getPercentileMillis(0.95), timer.getPercentileMillis(0.99),
+            toMillis(timer.maxNanos.get())
+        ));
+    }
+
+    /**
+     * Write the metrics as JSON
+     */
+    @SneakyThrows
+    public static void writeJson(Path file) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        Map<String, Object> timers = new LinkedHashMap<>();
+        TIMERS.forEach((name, timer) -> timers.put(name, timer.toMap()));
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("counters", counters);
+        metrics.put("timers", timers);
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), metrics);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static class Timer {
+        // Bucket i counts durations under 2^i ms, the last bucket counts the longer ones
+        private static final int BUCKETS = 20;
+
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+            this.buckets.incrementAndGet(getBucket(toMillis(nanos)));
+        }
+
+        double getMeanMillis() {
+            long count = this.count.sum();
+            return count == 0 ? 0 : this.totalNanos.sum() / 1e6 / count;
+        }
+
+        /**
+         * Get the upper bound of a percentile
+         */
+        long getPercentileMillis(double percentile) {
+            long rank = (long) Math.ceil(this.count.sum() * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += this.buckets.get(i);
+                if (seen >= rank) return Math.min(1L << i, toMillis(this.maxNanos.get()));
+            }
+            return toMillis(this.maxNanos.get());
+        }
+
+        /**
+         * Get the timer as a map, the histogram buckets are labeled by their exclusive upper bound e.g. lt64ms
+         */
+        Map<String, Object> toMap() {
+            Map<String, Object> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                long bucket = this.buckets.get(i);
+                if (bucket > 0) histogram.put(i == BUCKETS - 1 ? "inf" : "lt" + (1L << i) + "ms", bucket);
+            }
+            Map<String, Object> timer = new LinkedHashMap<>();
+            timer.put("count", this.count.sum());
+            timer.put("totalMs", toMillis(this.totalNanos.sum()));
+            timer.put("meanMs", getMeanMillis());
+            timer.put("maxMs", toMillis(this.maxNanos.get()));
+            timer.put("p50Ms", getPercentileMillis(0.50));
+            timer.put("p95Ms", getPercentileMillis(0.95));
+            timer.put("p99Ms", getPercentileMillis(0.99));
+            timer.put("histogram", histogram);
+            return timer;
+        }
+
+        private static int getBucket(long millis) {
+            int bucket = 0;
+            while (bucket < BUCKETS - 1 && millis >= 1L << bucket) bucket++;
+            return bucket;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A page of Report Portal's paged responses
+ *
+ * @param <T> Type of the items in the page
+ */
+@Getter
+@AllArgsConstructor
+public class Page<T> {
+    private final List<T> content;
+    private final int totalPages;
+}
@@ -0,0 +1,80 @@
+package helper;
+
+import lombok.SneakyThrows;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Iterate items of all pages of a paged response
+ * <p>
+ * Pages are loaded lazily, page N+1 is requested in the background while the items of page N are consumed. With a
+ * limit, the iteration ends at the limit and no page beyond it is requested.
+ *
+ * @param <T> Type of the items
+ */
+public class PageIterator<T> implements Iterator<T> {
+    private static final int FIRST_PAGE = 1;
+
+    private final IntFunction<Page<T>> pageLoader;
+    private final ExecutorService prefetchPool;
+    private final long limit;
+    private long loadedItems;
+    private long returnedItems;
+    private Iterator<T> current = Collections.emptyIterator();
+    private Future<Page<T>> nextPage;
+    private int nextPageNumber = FIRST_PAGE;
+    private int totalPages = FIRST_PAGE;
+
+    public PageIterator(IntFunction<Page<T>> pageLoader, ExecutorService prefetchPool) {
+        this(pageLoader, prefetchPool, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param limit Max number of items
+     */
+    public PageIterator(IntFunction<Page<T>> pageLoader, ExecutorService prefetchPool, long limit) {
+        this.pageLoader = pageLoader;
+        this.prefetchPool = prefetchPool;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.returnedItems >= this.limit) return false;
+        while (!this.current.hasNext()) {
+            if (this.nextPageNumber > this.totalPages) return false;
+            this.loadNextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) throw new NoSuchElementException();
+        this.returnedItems++;
+        return this.current.next();
+    }
+
+    @SneakyThrows
+    private void loadNextPage() {
+        Page<T> page = this.nextPage == null
+            ? this.pageLoader.apply(this.nextPageNumber)
+            : this.nextPage.get();
+        this.nextPage = null;
+        this.totalPages = page.getTotalPages();
+        this.current = page.getContent().iterator();
+        this.loadedItems += page.getContent().size();
+        this.nextPageNumber++;
+
+        // Request the next page while this one is being consumed, unless the limit is within the loaded pages
+        if (this.nextPageNumber <= this.totalPages && this.loadedItems < this.limit) {
+            int pageNumber = this.nextPageNumber;
+            this.nextPage = this.prefetchPool.submit(() -> this.pageLoader.apply(pageNumber));
+        }
+    }
+}
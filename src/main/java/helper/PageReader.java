@@ -0,0 +1,84 @@
+package helper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read pages of Report Portal's paged responses
+ * <p>
+ * The response is parsed as a stream, items of "content" are bound by a shared reader of their type, "page" is only
+ * read for totalPages and every other field is skipped without being materialized. Items pooling their strings get the
+ * string pool of the caller, see StringPool
+ */
+public class PageReader {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /**
+     * Read a single item e.g. a launch
+     */
+    public static <T> T readItem(InputStream in, Class<T> type) throws IOException {
+        return getReader(type, null).readValue(in);
+    }
+
+    public static <T> Page<T> read(InputStream in, Class<T> type) throws IOException {
+        return read(in, type, null);
+    }
+
+    /**
+     * Read a page
+     *
+     * @param stringPool Pool of the strings of the items, null to not pool them
+     */
+    public static <T> Page<T> read(InputStream in, Class<T> type, StringPool stringPool) throws IOException {
+        ObjectReader reader = getReader(type, stringPool);
+        try (JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Page must be an object");
+
+            List<T> content = new ArrayList<>();
+            int totalPages = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("content".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) content.add(reader.readValue(parser));
+                } else if ("page".equals(field) && value == JsonToken.START_OBJECT) {
+                    totalPages = readTotalPages(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new Page<>(content, totalPages);
+        }
+    }
+
+    private static ObjectReader getReader(Class<?> type, StringPool stringPool) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor)
+            .with(new InjectableValues.Std().addValue(StringPool.class, stringPool));
+    }
+
+    private static int readTotalPages(JsonParser parser) throws IOException {
+        int totalPages = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("totalPages".equals(field)) totalPages = parser.getValueAsInt();
+            else parser.skipChildren();
+        }
+        return totalPages;
+    }
+}
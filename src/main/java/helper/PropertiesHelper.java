@@ -3,19 +3,27 @@ package helper;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PropertiesHelper {
     /*
      * Properties mode
      */
     private static Properties _default, _props;
+    // Properties of the profiles by name
+    private static final Map<String, Properties> _profiles = new ConcurrentHashMap<>();
 
     private static Properties _propsForName() {
+        return _propsForName("default.properties");
+    }
+
+    private static Properties _propsForName(String fileName) {
         InputStream inputStream = null;
         try {
-            System.out.println("Loading properties: " + "default.properties");
-            inputStream = helper.PropertiesHelper.class.getClassLoader().getResourceAsStream("default.properties");
+            System.out.println("Loading properties: " + fileName);
+            inputStream = helper.PropertiesHelper.class.getClassLoader().getResourceAsStream(fileName);
 
             if (inputStream != null) {
                 Properties prop = new Properties();
@@ -24,7 +32,7 @@ public class PropertiesHelper {
             } else {
                 // throw new FileNotFoundException("property file '" +
                 // propFileName + "' not found in the classpath" );
-                System.out.println("default.properties" + " not found !");
+                System.out.println(fileName + " not found !");
                 return null;
             }
         } catch (Exception e) {
@@ -62,6 +70,17 @@ public class PropertiesHelper {
     }
 
     public static String getPropValue(String key, String defaultValue) {
+        return getPropValue(null, key, defaultValue);
+    }
+
+    /**
+     * Get a property of a profile
+     * <p>
+     * The properties of profile e.g. staging are read from staging.properties, which overrides default.properties
+     *
+     * @param profile Profile, null for the default properties only
+     */
+    public static String getPropValue(String profile, String key, String defaultValue) {
         _initProps();
 
         if (System.getProperty(key) != null)
@@ -70,6 +89,15 @@ public class PropertiesHelper {
         if (_props != null && _props.containsKey(key))
             return _props.getProperty(key);
 
+        if (profile != null) {
+            Properties profileProps = _profiles.computeIfAbsent(profile, p -> {
+                Properties props = _propsForName(p + ".properties");
+                return props != null ? props : new Properties();
+            });
+            if (profileProps.containsKey(key))
+                return profileProps.getProperty(key);
+        }
+
         if (_default != null && _default.containsKey(key))
             return _default.getProperty(key);
 
@@ -0,0 +1,155 @@
+package helper;
+
+import io.restassured.response.Response;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Execute Report Portal requests resiliently
+ * <p>
+ * Requests failing with a transient status (429, 502, 503, 504) or an I/O error are retried with a jittered
+ * exponential backoff, Retry-After is honored when present. At most maxInFlight requests are executed at the same
+ * time. After failureThreshold consecutive transient failures, the circuit opens and requests fail fast until it has
+ * been open for openMillis, then one trial request decides whether it closes again.
+ */
+public class ResilientExecutor {
+    private static final List<Integer> TRANSIENT_STATUSES = Arrays.asList(429, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Semaphore inFlight;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicBoolean trialInProgress = new AtomicBoolean();
+
+    /**
+     * @param maxAttempts      Max attempts of a request, 1 to never retry
+     * @param baseDelayMillis  Backoff delay of the first retry, doubled on every retry
+     * @param maxDelayMillis   Max backoff delay including Retry-After
+     * @param maxInFlight      Max requests executed at the same time
+     * @param failureThreshold Consecutive transient failures opening the circuit
+     * @param openMillis       Time the circuit stays open
+     */
+    public ResilientExecutor(int maxAttempts, long baseDelayMillis, long maxDelayMillis, int maxInFlight,
+                             int failureThreshold, long openMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Execute a request
+     *
+     * @param request Request
+     * @return Response of the last attempt, its status may still be a transient one
+     * @throws IllegalStateException when the circuit is open
+     */
+    @SneakyThrows
+    public Response execute(Supplier<Response> request) {
+        for (int attempt = 1; ; attempt++) {
+            boolean trial = this.acquireCircuit();
+            Response response;
+            try {
+                response = this.executeInFlight(request);
+            } catch (Exception e) {
+                if (!(e instanceof IOException)) {
+                    this.releaseCircuit(trial, false);
+                    throw e;
+                }
+                this.releaseCircuit(trial, true);
+                if (attempt >= this.maxAttempts) throw e;
+                this.backoff(attempt, null);
+                continue;
+            }
+
+            boolean failed = TRANSIENT_STATUSES.contains(response.statusCode());
+            this.releaseCircuit(trial, failed);
+            if (!failed || attempt >= this.maxAttempts) return response;
+            this.backoff(attempt, response.header("Retry-After"));
+        }
+    }
+
+    private Response executeInFlight(Supplier<Response> request) throws InterruptedException {
+        this.inFlight.acquire();
+        try {
+            return request.get();
+        } finally {
+            this.inFlight.release();
+        }
+    }
+
+    /**
+     * Check the circuit before a request
+     *
+     * @return Whether the request is the trial of a circuit open for long enough
+     */
+    private boolean acquireCircuit() {
+        long openedAt = this.openedAt.get();
+        if (openedAt == 0) return false;
+        if (System.currentTimeMillis() - openedAt >= this.openMillis && this.trialInProgress.compareAndSet(false, true))
+            return true;
+        Metrics.count("api.circuit.rejected");
+        throw new IllegalStateException(String.format(
+            "Circuit is open after %d consecutive failures of Report Portal", this.consecutiveFailures.get()
+        ));
+    }
+
+    private void releaseCircuit(boolean trial, boolean failed) {
+        if (!failed) {
+            this.consecutiveFailures.set(0);
+            this.openedAt.set(0);
+        } else if (this.consecutiveFailures.incrementAndGet() >= this.failureThreshold || trial) {
+            this.openedAt.set(System.currentTimeMillis());
+        }
+        if (trial) this.trialInProgress.set(false);
+    }
+
+    private void backoff(int attempt, String retryAfter) throws InterruptedException {
+        Metrics.count("api.retries");
+        long delay = getRetryAfterMillis(retryAfter);
+        if (delay < 0) {
+            // Full jitter, a random delay up to the exponential backoff
+            long backoff = Math.min(this.maxDelayMillis, this.baseDelayMillis << Math.min(attempt - 1, 30));
+            delay = ThreadLocalRandom.current().nextLong(backoff + 1);
+        }
+        Thread.sleep(Math.min(delay, this.maxDelayMillis));
+    }
+
+    /**
+     * Get the delay of a Retry-After header
+     *
+     * @param retryAfter Delay in seconds or HTTP date
+     * @return Delay in milliseconds, -1 when there is no valid header
+     */
+    static long getRetryAfterMillis(String retryAfter) {
+        if (retryAfter == null || retryAfter.trim().isEmpty()) return -1;
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt).toMillis());
+            } catch (Exception ignored) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package helper;
+
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Archive of recorded Report Portal responses
+ * <p>
+ * A recording run saves every response into a zip file, one deflated entry per request named by the key of the
+ * request, the entry comment keeps the latency and the request. A replaying run serves the responses by request,
+ * whatever the order or the concurrency of the requests, without a token or a network call.
+ */
+public class ResponseArchive implements AutoCloseable {
+    private static final String ENTRY_EXTENSION = ".json";
+
+    private final Path file;
+    // Recording, into a temp file replacing the archive once complete
+    private Path tempFile;
+    private ZipOutputStream out;
+    private final Set<String> recordedKeys = ConcurrentHashMap.newKeySet();
+    // Replaying
+    private ZipFile zipFile;
+    // Latency of every replayed response in milliseconds, -1 to replay the recorded latency
+    private final long replayLatencyMs;
+
+    private ResponseArchive(Path file, long replayLatencyMs) {
+        this.file = file;
+        this.replayLatencyMs = replayLatencyMs;
+    }
+
+    /**
+     * Start recording into an archive
+     * <p>
+     * The responses are recorded into a temp file next to the archive, which replaces an existing archive once it's
+     * committed. A recording closed without being committed e.g. of a failed run or interrupted by the JVM exiting is
+     * discarded, the previous archive is kept.
+     */
+    @SneakyThrows
+    public static ResponseArchive record(Path file) {
+        ResponseArchive archive = new ResponseArchive(file, 0);
+        archive.tempFile = FileHelper.createTempFile(file);
+        archive.out = new ZipOutputStream(Files.newOutputStream(archive.tempFile));
+        archive.out.setLevel(9);
+        Runtime.getRuntime().addShutdownHook(new Thread(archive::discard));
+        return archive;
+    }
+
+    /**
+     * Open an archive to replay
+     *
+     * @param replayLatencyMs Latency of every response in milliseconds, 0 for none, -1 to replay the recorded latency
+     */
+    @SneakyThrows
+    public static ResponseArchive replay(Path file, long replayLatencyMs) {
+        if (!Files.exists(file))
+            throw new IllegalStateException("No recording to replay, record one with transport.mode=record: " + file);
+        ResponseArchive archive = new ResponseArchive(file, replayLatencyMs);
+        archive.zipFile = new ZipFile(file.toFile());
+        return archive;
+    }
+
+    /**
+     * Save a response, a request already recorded is ignored
+     *
+     * @param latencyNanos Latency of the response
+     */
+    @SneakyThrows
+    public void put(String basePath, Map<String, String> query, byte[] body, long latencyNanos) {
+        String key = ResponseCache.key(basePath, query);
+        if (!this.recordedKeys.add(key)) return;
+
+        ZipEntry entry = new ZipEntry(key + ENTRY_EXTENSION);
+        entry.setComment(TimeUnit.NANOSECONDS.toMillis(latencyNanos) + " " + ResponseCache.describe(basePath, query));
+        synchronized (this) {
+            if (this.out == null) throw new IllegalStateException("Recording is closed: " + this.file);
+            this.out.putNextEntry(entry);
+            this.out.write(body);
+            this.out.closeEntry();
+        }
+    }
+
+    /**
+     * Get a recorded response, after the recorded or the configured latency
+     *
+     * @throws IllegalStateException when the request wasn't recorded
+     */
+    @SneakyThrows
+    public byte[] get(String basePath, Map<String, String> query) {
+        ZipEntry entry = this.zipFile.getEntry(ResponseCache.key(basePath, query) + ENTRY_EXTENSION);
+        if (entry == null)
+            throw new IllegalStateException(String.format("No recorded response of %s in %s",
+                ResponseCache.describe(basePath, query), this.file));
+
+        long latencyMs = this.replayLatencyMs >= 0 ? this.replayLatencyMs : getRecordedLatencyMs(entry);
+        if (latencyMs > 0) Thread.sleep(latencyMs);
+        try (InputStream in = this.zipFile.getInputStream(entry)) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream((int) Math.max(entry.getSize(), 32));
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) body.write(buffer, 0, read);
+            return body.toByteArray();
+        }
+    }
+
+    /**
+     * Complete the recording of a successful run, it replaces the archive
+     */
+    public synchronized void commit() {
+        if (this.out == null) return;
+        try {
+            this.out.close();
+            this.out = null;
+            FileHelper.replace(this.tempFile, this.file);
+        } catch (IOException e) {
+            System.err.println("Failed to save the recording " + this.file + ": " + e);
+        }
+    }
+
+    /**
+     * Close the archive, a recording which hasn't been committed is discarded
+     */
+    @Override
+    public synchronized void close() {
+        this.discard();
+        try {
+            if (this.zipFile != null) this.zipFile.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close the recording " + this.file + ": " + e);
+        }
+    }
+
+    /**
+     * Discard a recording which hasn't been committed
+     */
+    private synchronized void discard() {
+        if (this.out == null) return;
+        try {
+            this.out.close();
+        } catch (IOException ignored) {
+        }
+        this.out = null;
+        try {
+            Files.deleteIfExists(this.tempFile);
+        } catch (IOException e) {
+            System.err.println("Failed to delete the discarded recording " + this.tempFile + ": " + e);
+        }
+    }
+
+    private static long getRecordedLatencyMs(ZipEntry entry) {
+        String comment = entry.getComment();
+        if (comment == null) return 0;
+        int space = comment.indexOf(' ');
+        try {
+            return Long.parseLong(space < 0 ? comment : comment.substring(0, space));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
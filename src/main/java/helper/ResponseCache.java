@@ -0,0 +1,167 @@
+package helper;
+
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of Report Portal responses
+ * <p>
+ * Responses are gzipped into one file per request, the file name is the hash of the Report Portal URL, the base path
+ * and the sorted query, so servers sharing a cache directory don't serve each other's responses.
+ * When the cache grows over its size, the least recently used responses are deleted.
+ */
+public class ResponseCache {
+    private static final String RESPONSE_EXTENSION = ".json.gz";
+    private static final String FINISHED_LAUNCH_PREFIX = "launch-";
+    private static final String FINISHED_LAUNCH_EXTENSION = ".finished";
+
+    private final Path dir;
+    // URL of Report Portal, part of every key
+    private final String baseUri;
+    private final long maxBytes;
+    private final AtomicLong size = new AtomicLong();
+
+    @SneakyThrows
+    public ResponseCache(Path dir, String baseUri, long maxBytes) {
+        this.dir = dir;
+        this.baseUri = baseUri.replaceAll("/+$", "");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+        this.size.set(this.getResponseFiles().stream().mapToLong(ResponseCache::sizeOf).sum());
+    }
+
+    /**
+     * Get a cached response
+     *
+     * @param basePath Base path of the request
+     * @param query    Query of the request
+     * @return Response body or null when the response is not cached
+     */
+    @SneakyThrows
+    public byte[] get(String basePath, Map<String, String> query) {
+        Path file = this.getResponseFile(basePath, query);
+        if (!Files.exists(file)) return null;
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) body.write(buffer, 0, read);
+            // Recently used responses are evicted last
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return body.toByteArray();
+        } catch (IOException e) {
+            // A broken entry e.g. evicted while reading is a cache miss
+            return null;
+        }
+    }
+
+    @SneakyThrows
+    public void put(String basePath, Map<String, String> query, byte[] body) {
+        Path file = this.getResponseFile(basePath, query);
+        Path tempFile = Files.createTempFile(this.dir, "response", ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+            out.write(body);
+        }
+        long oldSize = sizeOf(file);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (this.size.addAndGet(sizeOf(file) - oldSize) > this.maxBytes) this.evict();
+    }
+
+    public boolean isLaunchFinished(String launchId) {
+        return Files.exists(this.getFinishedLaunchFile(launchId));
+    }
+
+    /**
+     * Mark a launch as finished, its cached responses are served without checking the launch again
+     */
+    @SneakyThrows
+    public void markLaunchFinished(String launchId) {
+        Path marker = this.getFinishedLaunchFile(launchId);
+        if (!Files.exists(marker)) Files.createFile(marker);
+    }
+
+    private synchronized void evict() {
+        List<Path> files = this.getResponseFiles().stream()
+            .sorted(Comparator.comparing(ResponseCache::lastModifiedOf))
+            .collect(Collectors.toList());
+        for (Path file : files) {
+            if (this.size.get() <= this.maxBytes) break;
+            long fileSize = sizeOf(file);
+            if (file.toFile().delete()) this.size.addAndGet(-fileSize);
+        }
+    }
+
+    @SneakyThrows
+    private List<Path> getResponseFiles() {
+        try (Stream<Path> files = Files.list(this.dir)) {
+            return files
+                .filter(e -> e.getFileName().toString().endsWith(RESPONSE_EXTENSION))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Path getResponseFile(String basePath, Map<String, String> query) {
+        return this.dir.resolve(hash(this.baseUri + describe(basePath, query)) + RESPONSE_EXTENSION);
+    }
+
+    private Path getFinishedLaunchFile(String launchId) {
+        String launch = hash(this.baseUri + "|" + launchId);
+        return this.dir.resolve(FINISHED_LAUNCH_PREFIX + launch + FINISHED_LAUNCH_EXTENSION);
+    }
+
+    /**
+     * Get key of a request
+     * <p>
+     * The query is sorted so the same request gets the same key whatever the order of its parameters
+     */
+    static String key(String basePath, Map<String, String> query) {
+        return hash(describe(basePath, query));
+    }
+
+    @SneakyThrows
+    private static String hash(String value) {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    /**
+     * Describe a request e.g. /api/v1/project/item?filter.eq.launchId=875&page.page=1
+     * <p>
+     * The query is sorted
+     */
+    static String describe(String basePath, Map<String, String> query) {
+        return basePath + "?" + new TreeMap<>(query).entrySet().stream()
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .collect(Collectors.joining("&"));
+    }
+
+    private static long sizeOf(Path file) {
+        return file.toFile().length();
+    }
+
+    private static long lastModifiedOf(Path file) {
+        return file.toFile().lastModified();
+    }
+}
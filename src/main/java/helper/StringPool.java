@@ -0,0 +1,41 @@
+package helper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of the strings repeated across the tests of a report e.g. the issue types and comments
+ * <p>
+ * Deserialized tests keep the pooled instance, equal issues of thousands of tests share one copy. A pool belongs to
+ * the report being generated and is dropped with it, the strings of a report aren't kept once it's done. The pool is
+ * bounded, strings beyond the limit are kept as they are.
+ */
+public class StringPool {
+    private static final int MAX_SIZE = 1 << 16;
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    /**
+     * Get the pooled instance of a string
+     *
+     * @param pool Pool, null to not pool the string
+     * @return Pooled string, the string itself when it's null, there's no pool or the pool is full
+     */
+    public static String intern(StringPool pool, String value) {
+        return pool == null ? value : pool.intern(value);
+    }
+
+    /**
+     * Get the pooled instance of a string
+     *
+     * @return Pooled string, the string itself when it's null or the pool is full
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+        String pooled = this.pool.get(value);
+        if (pooled != null) return pooled;
+        if (this.pool.size() >= MAX_SIZE) return value;
+        pooled = this.pool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+}
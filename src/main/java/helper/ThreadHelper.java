@@ -0,0 +1,24 @@
+package helper;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ThreadHelper {
+
+    /**
+     * Create a thread factory of daemon threads
+     * <p>
+     * Daemon threads don't keep the JVM alive when a report fails half way
+     *
+     * @param prefix Thread name prefix e.g. rp-fetch
+     * @return ThreadFactory naming threads as prefix-1, prefix-2, ...
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
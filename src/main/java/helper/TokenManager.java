@@ -0,0 +1,207 @@
+package helper;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Manage the token of Report Portal
+ * <p>
+ * An API key is used as is, no login is needed. Otherwise the token and its expiry are cached on disk so the next run
+ * starts without a login, the token is refreshed in the background refreshMarginSeconds before it expires and on
+ * demand when it has expired or is rejected.
+ */
+public class TokenManager {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final String apiKey;
+    private final Path tokenFile;
+    private final String owner;
+    private final long refreshMarginMillis;
+    // Gets a token by the refresh token, or by logging in when the refresh token is null
+    private final Function<String, Token> tokenRequester;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+        ThreadHelper.daemonThreadFactory("rp-token")
+    );
+    private volatile Token token;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    /**
+     * @param apiKey               API key, null or empty to log in
+     * @param tokenFile            File caching the token between runs, null to not cache it
+     * @param owner                Owner of the token e.g. URL and username, a cached token of another owner is ignored
+     * @param refreshMarginSeconds Seconds before the expiry the token is refreshed
+     * @param tokenRequester       Requester of a token by a refresh token, or by logging in when it's null
+     */
+    public TokenManager(String apiKey, Path tokenFile, String owner, long refreshMarginSeconds,
+                        Function<String, Token> tokenRequester) {
+        this.apiKey = apiKey == null || apiKey.trim().isEmpty() ? null : apiKey.trim();
+        this.tokenFile = tokenFile;
+        this.owner = owner;
+        this.refreshMarginMillis = TimeUnit.SECONDS.toMillis(refreshMarginSeconds);
+        this.tokenRequester = tokenRequester;
+    }
+
+    /**
+     * Get a valid token
+     */
+    public String getToken() {
+        if (this.apiKey != null) return this.apiKey;
+
+        Token token = this.token;
+        if (token != null && !token.isExpired(0)) return token.getAccessToken();
+        synchronized (this) {
+            if (this.token == null) this.token = this.load();
+            if (this.token == null || this.token.isExpired(0)) this.refresh(this.token);
+            return this.token.getAccessToken();
+        }
+    }
+
+    /**
+     * Invalidate a token rejected by Report Portal
+     *
+     * @return Whether a new token can be tried
+     */
+    public boolean invalidate(String accessToken) {
+        if (this.apiKey != null) return false;
+        synchronized (this) {
+            if (this.token != null && this.token.getAccessToken().equals(accessToken)) {
+                this.token = null;
+                if (this.tokenFile != null) this.tokenFile.toFile().delete();
+            }
+        }
+        return true;
+    }
+
+    private synchronized void refresh(Token expiredToken) {
+        Token token = null;
+        if (expiredToken != null && expiredToken.getRefreshToken() != null) {
+            try {
+                token = this.tokenRequester.apply(expiredToken.getRefreshToken());
+            } catch (Throwable e) {
+                System.err.println("Failed to refresh the token, logging in: " + e);
+            }
+        }
+        if (token == null) token = this.tokenRequester.apply(null);
+
+        token.setOwner(this.owner);
+        this.token = token;
+        this.save(token);
+        this.scheduleRefresh(token);
+    }
+
+    private void scheduleRefresh(Token token) {
+        if (this.scheduledRefresh != null) this.scheduledRefresh.cancel(false);
+        if (token.getExpiresAt() == Long.MAX_VALUE) return;
+
+        long delay = Math.max(0, token.getExpiresAt() - this.refreshMarginMillis - System.currentTimeMillis());
+        this.scheduledRefresh = this.refresher.schedule(() -> {
+            try {
+                this.refresh(token);
+            } catch (Throwable e) {
+                // The token is refreshed on demand once it has expired
+                System.err.println("Failed to refresh the token in the background: " + e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Token load() {
+        if (this.tokenFile == null || !Files.exists(this.tokenFile)) return null;
+        try {
+            Token token = MAPPER.readValue(this.tokenFile.toFile(), Token.class);
+            if (!this.owner.equals(token.getOwner()) || token.isExpired(0)) return null;
+            // A token about to expire is used while it's refreshed right away
+            this.scheduleRefresh(token);
+            return token;
+        } catch (Exception e) {
+            System.err.println("Ignoring the cached token: " + e);
+            return null;
+        }
+    }
+
+    private void save(Token token) {
+        if (this.tokenFile == null) return;
+        try {
+            Path dir = this.tokenFile.toAbsolutePath().getParent();
+            createPrivateDirectories(dir);
+            Path tempFile = createPrivateFile(dir);
+            try {
+                Files.write(tempFile, MAPPER.writeValueAsBytes(token));
+                FileHelper.replace(tempFile, this.tokenFile);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to cache the token: " + e);
+        }
+    }
+
+    /**
+     * Create a directory private to the user where supported, an existing directory is kept as it is
+     */
+    private static void createPrivateDirectories(Path dir) throws IOException {
+        if (Files.isDirectory(dir)) return;
+        try {
+            Files.createDirectories(dir,
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createDirectories(dir);
+        }
+    }
+
+    /**
+     * Create a temp file private to the user where supported
+     * <p>
+     * The token grants access to Report Portal, it's never readable by others, not even before it's moved into place
+     */
+    private static Path createPrivateFile(Path dir) throws IOException {
+        try {
+            return Files.createTempFile(dir, ".token", ".tmp",
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            return Files.createTempFile(dir, ".token", ".tmp");
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Token {
+        private String owner;
+        private String accessToken;
+        private String refreshToken;
+        // Epoch millis, Long.MAX_VALUE when the token doesn't expire
+        private long expiresAt;
+
+        /**
+         * Create a token of an OAuth response
+         *
+         * @param expiresInSeconds expires_in of the response, null when the token doesn't expire
+         */
+        public static Token of(String accessToken, String refreshToken, Long expiresInSeconds) {
+            long expiresAt = expiresInSeconds == null
+                ? Long.MAX_VALUE
+                : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expiresInSeconds);
+            return new Token(null, accessToken, refreshToken, expiresAt);
+        }
+
+        boolean isExpired(long marginMillis) {
+            return this.expiresAt != Long.MAX_VALUE && System.currentTimeMillis() >= this.expiresAt - marginMillis;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package excel.report;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * CSV files of a report read back
+ */
+public class CsvSinkTest {
+    private static final List<Column> COLUMNS = Arrays.asList(
+        new Column("Feature", 60, Column.Type.TEXT),
+        new Column("Status", 15, Column.Type.STATUS),
+        new Column("Total", 10, Column.Type.NUMBER),
+        new Column("Note", 30, Column.Type.TEXT),
+        new Column("Log", 10, Column.Type.LINK)
+    );
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesFilePerSheetQuotingValues() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.csv");
+        CsvSink sink = new CsvSink(file);
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.createSheet("CR", 2, COLUMNS);
+        sink.writeRow("Non-CR", 1, Arrays.asList("Checkout, payment", "FAILED", "35",
+            "FAILED: \"Timeout\"\nSKIPPED: <Known> & bug", "https://rp.example.com/ui/#p/launches/all/875/1/log"), 0);
+        sink.writeRow("Non-CR", 2, Arrays.asList("007", "PASSED", "", "42", ""), 1);
+        sink.save();
+
+        assertEquals("Feature,Status,Total,Note,Log\r\n"
+                + "\"Checkout, payment\",FAILED,35,\"FAILED: \"\"Timeout\"\"\nSKIPPED: <Known> & bug\","
+                + "https://rp.example.com/ui/#p/launches/all/875/1/log\r\n"
+                + "007,PASSED,,42,\r\n",
+            read(file.resolveSibling("FeaturesResult-Non-CR.csv")));
+        assertEquals("Feature,Status,Total,Note,Log\r\n", read(file.resolveSibling("FeaturesResult-CR.csv")));
+        assertArrayEquals(new String[]{"FeaturesResult-CR.csv", "FeaturesResult-Non-CR.csv"}, this.list());
+    }
+
+    @Test
+    public void discardKeepsPreviousFiles() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.csv");
+        Path sheetFile = file.resolveSibling("FeaturesResult-Non-CR.csv");
+        Files.write(sheetFile, "Previous\r\n".getBytes(StandardCharsets.UTF_8));
+        CsvSink sink = new CsvSink(file);
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.createSheet("CR", 2, COLUMNS);
+        sink.writeRow("Non-CR", 1, Arrays.asList("Checkout", "PASSED", "1", "", ""), 0);
+
+        sink.discard();
+
+        assertEquals("Previous\r\n", read(sheetFile));
+        assertArrayEquals(new String[]{"FeaturesResult-Non-CR.csv"}, this.list());
+    }
+
+    private String[] list() {
+        String[] fileNames = this.folder.getRoot().list();
+        Arrays.sort(fileNames);
+        return fileNames;
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package excel.report;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * HTML page of a report read back
+ */
+public class HtmlSinkTest {
+    private static final List<Column> COLUMNS = Arrays.asList(
+        new Column("Feature", 60, Column.Type.TEXT),
+        new Column("Status", 15, Column.Type.STATUS),
+        new Column("Total", 10, Column.Type.NUMBER),
+        new Column("Note", 30, Column.Type.TEXT),
+        new Column("Log", 10, Column.Type.LINK)
+    );
+    private static final String HEAD = "<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n"
+        + "<title>Launch &lt;875&gt; &amp; &quot;more&quot;</title>\n"
+        + "<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:2em}th{background:#CCFFCC}"
+        + "th,td{border:1px solid #999;padding:2px 6px;vertical-align:top;white-space:pre-wrap}"
+        + "tr.grouped td:first-child{padding-left:2em}</style>\n</head>\n<body>\n"
+        + "<h1>Launch &lt;875&gt; &amp; &quot;more&quot;</h1>\n";
+    private static final String HEADER_ROW = "<tr><th style=\"min-width:30em\">Feature</th>"
+        + "<th style=\"min-width:7em\">Status</th><th style=\"min-width:5em\">Total</th>"
+        + "<th style=\"min-width:15em\">Note</th><th style=\"min-width:5em\">Log</th></tr>\n";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesTablePerSheetEscapingValues() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.html");
+        HtmlSink sink = new HtmlSink(file, "Launch <875> & \"more\"");
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.createSheet("CR", 2, COLUMNS);
+        sink.writeRow("Non-CR", 1, Arrays.asList("Checkout, payment", "FAILED", "35",
+            "FAILED: \"Timeout\"\nSKIPPED: <Known> & bug",
+            "https://rp.example.com/ui/#p/launches/all/875/1/log?a=1&b=2"), 0);
+        sink.writeRow("Non-CR", 2, Arrays.asList("007", "PASSED", "", "42", ""), 1);
+        sink.writeRow("Non-CR", 3, Arrays.asList("Search", "SKIPPED", "0", null, null), 0);
+        sink.save();
+
+        assertEquals(HEAD
+                + "<h2>Non-CR</h2>\n<table>\n" + HEADER_ROW
+                + "<tr><td>Checkout, payment</td><td style=\"background:#FF0000\">FAILED</td><td>35</td>"
+                + "<td>FAILED: &quot;Timeout&quot;\nSKIPPED: &lt;Known&gt; &amp; bug</td>"
+                + "<td><a href=\"https://rp.example.com/ui/#p/launches/all/875/1/log?a=1&amp;b=2\">Open</a></td></tr>\n"
+                + "<tr class=\"grouped\"><td>007</td><td style=\"background:#008000\">PASSED</td><td></td>"
+                + "<td>42</td><td></td></tr>\n"
+                + "<tr><td>Search</td><td style=\"background:#666699\">SKIPPED</td><td>0</td><td></td><td></td></tr>\n"
+                + "</table>\n"
+                + "<h2>CR</h2>\n<table>\n" + HEADER_ROW + "</table>\n"
+                + "</body>\n</html>\n",
+            read(file));
+        assertArrayEquals(new String[]{"FeaturesResult.html"}, this.folder.getRoot().list());
+    }
+
+    @Test
+    public void discardKeepsPreviousFile() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.html");
+        Files.write(file, "<html></html>\n".getBytes(StandardCharsets.UTF_8));
+        HtmlSink sink = new HtmlSink(file, "Launch 875");
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.writeRow("Non-CR", 1, Arrays.asList("Checkout", "PASSED", "1", "", ""), 0);
+
+        sink.discard();
+
+        assertEquals("<html></html>\n", read(file));
+        assertArrayEquals(new String[]{"FeaturesResult.html"}, this.folder.getRoot().list());
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package excel.report;
+
+import excel.report.dto.Suite;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Rows of the suites of an updated report
+ */
+public class IncrementalStateTest {
+    private static final int START_ROW_IDX = 1;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void startsEmptySheetAtStartRow() {
+        IncrementalState state = new IncrementalState("875");
+
+        assertEquals(START_ROW_IDX, state.locate(suite(1, 100), "Non-CR", START_ROW_IDX).getRowIdx());
+    }
+
+    @Test
+    public void reusesRowOfWrittenSuite() {
+        IncrementalState state = new IncrementalState("875");
+        state.put(suite(1, 100), "Non-CR", 1);
+        state.put(suite(2, 100), "CR", 1);
+        state.put(suite(3, 100), "CR", 2);
+
+        IncrementalState.SuiteState suiteState = state.locate(suite(2, 200), "Non-CR", START_ROW_IDX);
+
+        assertEquals("CR", suiteState.getSheetName());
+        assertEquals(1, suiteState.getRowIdx());
+        assertEquals(3, state.getSuites().size());
+    }
+
+    @Test
+    public void appendsNewSuitesAfterLastRowOfTheirSheet() {
+        IncrementalState state = new IncrementalState("875");
+        state.put(suite(1, 100), "Non-CR", 1);
+        state.put(suite(2, 100), "Non-CR", 2);
+        state.put(suite(3, 100), "CR", 1);
+
+        assertEquals(3, state.locate(suite(4, 200), "Non-CR", START_ROW_IDX).getRowIdx());
+        assertEquals(2, state.locate(suite(5, 200), "CR", START_ROW_IDX).getRowIdx());
+        // A located suite has its row before it's written, the next new suite goes after it
+        assertEquals(4, state.locate(suite(6, 200), "Non-CR", START_ROW_IDX).getRowIdx());
+        assertEquals(3, state.locate(suite(4, 200), "Non-CR", START_ROW_IDX).getRowIdx());
+    }
+
+    @Test
+    public void syncsFromMostRecentModification() {
+        IncrementalState state = new IncrementalState("875");
+        state.put(suite(1, 300), "Non-CR", 1);
+        state.put(suite(2, 100), "Non-CR", 2);
+        state.sync(200);
+        assertEquals(300, state.getSyncedAt());
+
+        state.sync(400);
+        assertEquals(400, state.getSyncedAt());
+    }
+
+    @Test
+    public void keepsRowsBetweenRuns() throws Exception {
+        Path stateFile = this.folder.getRoot().toPath().resolve("FeaturesResult.xlsx.state.json");
+        IncrementalState state = new IncrementalState("875");
+        state.put(suite(1, 100), "Non-CR", 1);
+        state.put(suite(2, 200), "CR", 1);
+        state.save(stateFile);
+
+        IncrementalState loaded = IncrementalState.load(stateFile);
+
+        assertEquals("875", loaded.getLaunchId());
+        assertEquals(200, loaded.getSyncedAt());
+        assertEquals(1, loaded.locate(suite(2, 300), "Non-CR", START_ROW_IDX).getRowIdx());
+        assertEquals(2, loaded.locate(suite(3, 300), "Non-CR", START_ROW_IDX).getRowIdx());
+        // The state file is replaced, no temp file is left behind
+        assertArrayEquals(new String[]{"FeaturesResult.xlsx.state.json"}, this.folder.getRoot().list());
+    }
+
+    private static Suite suite(int id, long lastModified) {
+        return new Suite(id, "Suite " + id, "PASSED", String.valueOf(id), null, lastModified);
+    }
+}
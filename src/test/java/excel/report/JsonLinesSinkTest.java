@@ -0,0 +1,78 @@
+package excel.report;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JSON Lines file of a report read back
+ */
+public class JsonLinesSinkTest {
+    private static final List<Column> COLUMNS = Arrays.asList(
+        new Column("Feature", 60, Column.Type.TEXT),
+        new Column("Status", 15, Column.Type.STATUS),
+        new Column("Total", 10, Column.Type.NUMBER),
+        new Column("Note", 30, Column.Type.TEXT),
+        new Column("Log", 10, Column.Type.LINK)
+    );
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesObjectPerRowTypingNumberColumns() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.jsonl");
+        JsonLinesSink sink = new JsonLinesSink(file);
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.createSheet("CR", 2, COLUMNS);
+        sink.writeRow("Non-CR", 1, Arrays.asList("Checkout, payment", "FAILED", "35",
+            "FAILED: \"Timeout\"\nSKIPPED: <Known> & bug", "https://rp.example.com/ui/#p/launches/all/875/1/log"), 0);
+        sink.writeRow("CR", 1, Arrays.asList("007", "PASSED", "", "42", ""), 1);
+        sink.save();
+
+        assertEquals("{\"sheet\":\"Non-CR\",\"Feature\":\"Checkout, payment\",\"Status\":\"FAILED\",\"Total\":35,"
+                + "\"Note\":\"FAILED: \\\"Timeout\\\"\\nSKIPPED: <Known> & bug\","
+                + "\"Log\":\"https://rp.example.com/ui/#p/launches/all/875/1/log\"}\n"
+                + "{\"sheet\":\"CR\",\"Feature\":\"007\",\"Status\":\"PASSED\",\"Total\":null,\"Note\":\"42\","
+                + "\"Log\":\"\"}\n",
+            read(file));
+        assertArrayEquals(new String[]{"FeaturesResult.jsonl"}, this.folder.getRoot().list());
+    }
+
+    @Test
+    public void writesEmptyFileWithoutRows() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.jsonl");
+        JsonLinesSink sink = new JsonLinesSink(file);
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.save();
+
+        assertEquals("", read(file));
+    }
+
+    @Test
+    public void discardKeepsPreviousFile() throws Exception {
+        Path file = this.folder.getRoot().toPath().resolve("FeaturesResult.jsonl");
+        Files.write(file, "{}\n".getBytes(StandardCharsets.UTF_8));
+        JsonLinesSink sink = new JsonLinesSink(file);
+        sink.createSheet("Non-CR", 1, COLUMNS);
+        sink.writeRow("Non-CR", 1, Arrays.asList("Checkout", "PASSED", "1", "", ""), 0);
+
+        sink.discard();
+
+        assertEquals("{}\n", read(file));
+        assertArrayEquals(new String[]{"FeaturesResult.jsonl"}, this.folder.getRoot().list());
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package excel.report;
+
+import enums.StatusFormat;
+import helper.ExcelHelper;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sheets of a streaming workbook written at the same time, as RP2Excel writes them
+ */
+public class XlsxSinkTest {
+    private static final List<Column> COLUMNS = Arrays.asList(
+        new Column("Name", 40, Column.Type.TEXT),
+        new Column("Status", 10, Column.Type.STATUS),
+        new Column("Log", 10, Column.Type.LINK)
+    );
+    private static final String[] STATUSES = {"PASSED", "FAILED", "SKIPPED"};
+    private static final int SHEETS = 4;
+    private static final int ROWS = 5000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesSheetsOfStreamingWorkbookConcurrently() throws Exception {
+        String filePath = new File(this.folder.getRoot(), "FeaturesResult.xlsx").getPath();
+        XlsxSink sink = new XlsxSink(new ExcelHelper(filePath, 100), StatusFormat.STYLES);
+        assertTrue(sink.isConcurrent());
+        for (int sheet = 0; sheet < SHEETS; sheet++) sink.createSheet(getSheetName(sheet), -1, COLUMNS);
+
+        List<Callable<Void>> sheetWriters = new ArrayList<>();
+        for (int sheet = 0; sheet < SHEETS; sheet++) {
+            int sheetIdx = sheet;
+            sheetWriters.add(() -> {
+                for (int row = 1; row <= ROWS; row++)
+                    sink.writeRow(getSheetName(sheetIdx), row, getValues(sheetIdx, row), row % 2);
+                return null;
+            });
+        }
+        ExecutorService writePool = Executors.newFixedThreadPool(SHEETS);
+        try {
+            for (Future<Void> sheetWriter : writePool.invokeAll(sheetWriters)) sheetWriter.get();
+        } finally {
+            writePool.shutdownNow();
+        }
+        sink.save();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new File(filePath))) {
+            for (int sheetIdx = 0; sheetIdx < SHEETS; sheetIdx++) {
+                Sheet sheet = workbook.getSheet(getSheetName(sheetIdx));
+                assertEquals(ROWS, sheet.getLastRowNum());
+                assertEquals("Name", sheet.getRow(0).getCell(1).getStringCellValue());
+                for (int rowIdx = 1; rowIdx <= ROWS; rowIdx++) {
+                    assertRow(sheet.getRow(rowIdx), getValues(sheetIdx, rowIdx), rowIdx % 2);
+                }
+            }
+        }
+    }
+
+    private static void assertRow(Row row, List<String> values, int level) {
+        String rowName = values.get(0);
+        Cell name = row.getCell(1);
+        assertEquals(rowName, values.get(0), name.getStringCellValue());
+        assertTrue(rowName, name.getCellStyle().getWrapText());
+        assertEquals(rowName, BorderStyle.THIN, name.getCellStyle().getBorderBottom());
+
+        Cell status = row.getCell(2);
+        assertEquals(rowName, values.get(1), status.getStringCellValue());
+        CellStyle statusStyle = status.getCellStyle();
+        assertEquals(rowName, StatusColor.of(values.get(1)).getColor().getIndex(),
+            statusStyle.getFillForegroundColor());
+        assertEquals(rowName, BorderStyle.THIN, statusStyle.getBorderBottom());
+
+        Cell link = row.getCell(3);
+        assertEquals(rowName, "HYPERLINK(\"" + values.get(2) + "\",\"Open\")", link.getCellFormula());
+        Font linkFont = row.getSheet().getWorkbook().getFontAt(link.getCellStyle().getFontIndex());
+        assertEquals(rowName, Font.U_SINGLE, linkFont.getUnderline());
+
+        assertEquals(rowName, level, ((XSSFRow) row).getCTRow().getOutlineLevel());
+    }
+
+    private static String getSheetName(int sheetIdx) {
+        return "Sheet " + sheetIdx;
+    }
+
+    private static List<String> getValues(int sheetIdx, int rowIdx) {
+        return Arrays.asList(String.format("Suite %d.%d", sheetIdx, rowIdx), STATUSES[(sheetIdx + rowIdx) % 3],
+            String.format("https://rp.example.com/ui/#my_project/launches/all/875/%d/%d/log", sheetIdx, rowIdx));
+    }
+}
@@ -0,0 +1,89 @@
+package helper;
+
+import enums.DefinedCellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Excel files written by ExcelHelper then read back
+ */
+public class ExcelHelperTest {
+    private static final List<DefinedCellStyle> STYLES = Collections.singletonList(DefinedCellStyle.BORDER_ALL);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rewritesRowsOfOpenedSheetWhileStreamingNewSheet() throws Exception {
+        String filePath = new File(this.folder.getRoot(), "FeaturesResult.xlsx").getPath();
+        ExcelHelper report = new ExcelHelper(filePath);
+        report.createSheet("Non-CR");
+        for (int i = 0; i < 3; i++)
+            report.createRowWithFormat("Non-CR", i, 1, Arrays.asList("Suite " + i, "PASSED"), STYLES);
+        report.saveAndClose();
+
+        ExcelHelper update = new ExcelHelper(filePath, 2);
+        update.createRowWithFormat("Non-CR", 1, 1, Arrays.asList("Suite 1", "FAILED"), STYLES);
+        update.createRowWithFormat("Non-CR", 3, 1, Arrays.asList("Suite 3", "PASSED"), STYLES);
+        update.createSheet("Details");
+        for (int i = 0; i < 10; i++)
+            update.createRowWithFormat("Details", i, 1, Collections.singletonList("Test " + i), STYLES);
+        update.saveAndClose();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new File(filePath))) {
+            Sheet nonCr = workbook.getSheet("Non-CR");
+            assertEquals(3, nonCr.getLastRowNum());
+            assertEquals("PASSED", nonCr.getRow(0).getCell(2).getStringCellValue());
+            assertEquals("FAILED", nonCr.getRow(1).getCell(2).getStringCellValue());
+            assertEquals("Suite 3", nonCr.getRow(3).getCell(1).getStringCellValue());
+            assertNull(nonCr.getRow(1).getCell(3));
+            Sheet details = workbook.getSheet("Details");
+            assertEquals(9, details.getLastRowNum());
+            for (int i = 0; i < 10; i++) assertEquals("Test " + i, details.getRow(i).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void discardDeletesTempFilesAndKeepsFile() throws Exception {
+        String filePath = new File(this.folder.getRoot(), "FeaturesResult.xlsx").getPath();
+        ExcelHelper report = new ExcelHelper(filePath);
+        report.createSheet("Non-CR");
+        report.createRowWithFormat("Non-CR", 0, 1, Arrays.asList("Suite 0", "PASSED"), STYLES);
+        report.saveAndClose();
+        byte[] saved = Files.readAllBytes(Paths.get(filePath));
+
+        File tempDir = this.folder.newFolder("poifiles");
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir));
+        try {
+            ExcelHelper update = new ExcelHelper(filePath, 2);
+            update.createSheet("Details");
+            for (int i = 0; i < 10; i++)
+                update.createRowWithFormat("Details", i, 1, Collections.singletonList("Test " + i), STYLES);
+            // A temp file per sheet
+            assertEquals(2, tempDir.list().length);
+
+            update.discard();
+        } finally {
+            TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+        }
+
+        assertEquals(0, tempDir.list().length);
+        assertArrayEquals(saved, Files.readAllBytes(Paths.get(filePath)));
+    }
+}
@@ -0,0 +1,65 @@
+package helper;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * HttpTransport against a local stub of Report Portal
+ */
+public class HttpTransportTest {
+    private static final String BODY = "{\"content\":[{\"id\":161810,\"name\":\"Checkout NON-CR 001\"}]}";
+
+    private HttpServer server;
+    private HttpTransport transport;
+    private byte[] gzippedBody;
+
+    @Before
+    public void setUp() throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzipped)) {
+            for (int i = 0; i < 100; i++) out.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        this.gzippedBody = gzipped.toByteArray();
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", exchange -> {
+            try {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, this.gzippedBody.length);
+                exchange.getResponseBody().write(this.gzippedBody);
+            } finally {
+                exchange.close();
+            }
+        });
+        this.server.start();
+        this.transport = new HttpTransport("http://localhost:" + this.server.getAddress().getPort(), 4, 4, 1000, 5000);
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void decodesGzippedResponseAndCountsReceivedBytes() {
+        long received = Metrics.getCount("api.bytes.received");
+
+        Response response = this.transport.request().basePath("/api").get();
+
+        assertEquals(200, response.statusCode());
+        assertEquals(BODY.length() * 100, response.asByteArray().length);
+        assertEquals(this.gzippedBody.length, Metrics.getCount("api.bytes.received") - received);
+    }
+}
@@ -0,0 +1,236 @@
+package helper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ResilientExecutor against a local stub of Report Portal
+ */
+public class ResilientExecutorTest {
+    private HttpServer server;
+    private HttpTransport transport;
+    private final AtomicInteger requests = new AtomicInteger();
+    // Response of every request, by the number of the request starting at 1
+    private volatile StubResponse stubResponse;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.createContext("/", exchange -> {
+            try {
+                this.stubResponse.respond(exchange, this.requests.incrementAndGet());
+            } finally {
+                exchange.close();
+            }
+        });
+        this.server.start();
+        this.transport = new HttpTransport(getUrl(this.server.getAddress().getPort()), 16, 16, 1000, 5000);
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void retriesTooManyRequestsAfterRetryAfterSeconds() {
+        this.stubResponse = (exchange, request) -> {
+            if (request == 1) exchange.getResponseHeaders().add("Retry-After", "1");
+            send(exchange, request == 1 ? 429 : 200);
+        };
+        ResilientExecutor executor = new ResilientExecutor(3, 1, 5000, 16, 10, 30000);
+
+        long start = System.currentTimeMillis();
+        Response response = executor.execute(this::get);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, this.requests.get());
+        assertTrue("Retried before Retry-After", System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    public void retriesTooManyRequestsAfterRetryAfterDate() {
+        // The date has no milliseconds, the retry is 1 to 2 seconds later
+        String retryAt = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(2));
+        this.stubResponse = (exchange, request) -> {
+            if (request == 1) exchange.getResponseHeaders().add("Retry-After", retryAt);
+            send(exchange, request == 1 ? 429 : 200);
+        };
+        ResilientExecutor executor = new ResilientExecutor(3, 1, 5000, 16, 10, 30000);
+
+        long start = System.currentTimeMillis();
+        Response response = executor.execute(this::get);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, this.requests.get());
+        assertTrue("Retried before Retry-After", System.currentTimeMillis() - start >= 900);
+    }
+
+    @Test
+    public void parsesRetryAfter() {
+        assertEquals(3000, ResilientExecutor.getRetryAfterMillis(" 3 "));
+        assertEquals(0, ResilientExecutor.getRetryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertEquals(-1, ResilientExecutor.getRetryAfterMillis("soon"));
+        assertEquals(-1, ResilientExecutor.getRetryAfterMillis(null));
+    }
+
+    @Test
+    public void retriesServiceUnavailableUntilAttemptsRunOut() {
+        this.stubResponse = (exchange, request) -> send(exchange, 503);
+        ResilientExecutor executor = new ResilientExecutor(3, 1, 10, 16, 10, 30000);
+
+        Response response = executor.execute(this::get);
+
+        assertEquals(503, response.statusCode());
+        assertEquals(3, this.requests.get());
+    }
+
+    @Test
+    public void retriesIOError() throws IOException {
+        this.stubResponse = (exchange, request) -> send(exchange, 200);
+        String refusingUrl = getUrl(getFreePort());
+        AtomicInteger attempts = new AtomicInteger();
+        ResilientExecutor executor = new ResilientExecutor(3, 1, 10, 16, 10, 30000);
+
+        // The first attempt is refused, the retry reaches the stub
+        Response response = executor.execute(() -> attempts.incrementAndGet() == 1
+            ? this.transport.request().baseUri(refusingUrl).basePath("/api").get()
+            : this.get());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, attempts.get());
+        assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    public void failsWithIOErrorWhenAttemptsRunOut() throws IOException {
+        String refusingUrl = getUrl(getFreePort());
+        AtomicInteger attempts = new AtomicInteger();
+        ResilientExecutor executor = new ResilientExecutor(2, 1, 10, 16, 10, 30000);
+
+        try {
+            executor.execute(() -> {
+                attempts.incrementAndGet();
+                return this.transport.request().baseUri(refusingUrl).basePath("/api").get();
+            });
+            fail("No I/O error");
+        } catch (Exception e) {
+            assertTrue(e.toString(), e instanceof ConnectException);
+        }
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void capsRequestsInFlight() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        this.stubResponse = (exchange, request) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            send(exchange, 200);
+        };
+        ResilientExecutor executor = new ResilientExecutor(1, 1, 10, 2, 10, 30000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) responses.add(callers.submit(() -> executor.execute(this::get)));
+            for (Future<Response> response : responses) assertEquals(200, response.get().statusCode());
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(8, this.requests.get());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void opensCircuitThenClosesItAfterTrial() throws InterruptedException {
+        this.stubResponse = (exchange, request) -> send(exchange, request <= 2 ? 503 : 200);
+        ResilientExecutor executor = new ResilientExecutor(1, 1, 10, 16, 2, 300);
+
+        assertEquals(503, executor.execute(this::get).statusCode());
+        assertEquals(503, executor.execute(this::get).statusCode());
+        // Open, requests fail fast without reaching Report Portal
+        try {
+            executor.execute(this::get);
+            fail("Circuit is closed");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(2, this.requests.get());
+
+        // Half open, the trial request succeeds and closes the circuit
+        Thread.sleep(350);
+        assertEquals(200, executor.execute(this::get).statusCode());
+        assertEquals(200, executor.execute(this::get).statusCode());
+        assertEquals(4, this.requests.get());
+    }
+
+    @Test
+    public void reopensCircuitWhenTrialFails() throws InterruptedException {
+        this.stubResponse = (exchange, request) -> send(exchange, 503);
+        ResilientExecutor executor = new ResilientExecutor(1, 1, 10, 16, 2, 300);
+
+        executor.execute(this::get);
+        executor.execute(this::get);
+        Thread.sleep(350);
+        assertEquals(503, executor.execute(this::get).statusCode());
+        try {
+            executor.execute(this::get);
+            fail("Circuit is closed");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(3, this.requests.get());
+    }
+
+    private Response get() {
+        return this.transport.request().basePath("/api").get();
+    }
+
+    private static void send(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static String getUrl(int port) {
+        return "http://localhost:" + port;
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @FunctionalInterface
+    private interface StubResponse {
+        void respond(HttpExchange exchange, int request) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package helper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Recordings replacing the archive
+ */
+public class ResponseArchiveTest {
+    private static final String BASE_PATH = "/api/v1/my_project/item";
+    private static final Map<String, String> QUERY = Collections.singletonMap("filter.eq.launchId", "875");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void committedRecordingReplacesArchive() {
+        Path file = this.folder.getRoot().toPath().resolve("recording.zip");
+        record(file, "first", true);
+        record(file, "second", true);
+
+        try (ResponseArchive archive = ResponseArchive.replay(file, 0)) {
+            assertArrayEquals(bytes("second"), archive.get(BASE_PATH, QUERY));
+        }
+        assertArrayEquals(new String[]{"recording.zip"}, this.folder.getRoot().list());
+    }
+
+    @Test
+    public void recordingClosedWithoutCommitKeepsArchive() {
+        Path file = this.folder.getRoot().toPath().resolve("recording.zip");
+        record(file, "first", true);
+        record(file, "failed", false);
+
+        try (ResponseArchive archive = ResponseArchive.replay(file, 0)) {
+            assertArrayEquals(bytes("first"), archive.get(BASE_PATH, QUERY));
+        }
+        assertArrayEquals(new String[]{"recording.zip"}, this.folder.getRoot().list());
+    }
+
+    @Test
+    public void recordingClosedWithoutCommitLeavesNoArchive() {
+        Path file = this.folder.getRoot().toPath().resolve("recording.zip");
+        record(file, "failed", false);
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, this.folder.getRoot().list().length);
+    }
+
+    private static void record(Path file, String body, boolean commit) {
+        try (ResponseArchive archive = ResponseArchive.record(file)) {
+            archive.put(BASE_PATH, QUERY, bytes(body), 1_000_000);
+            if (commit) archive.commit();
+        }
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tokens cached between runs
+ */
+public class TokenManagerTest {
+    private static final String OWNER = "http://localhost|user";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    // Refresh token of every token request, null for a login
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch requested = new CountDownLatch(1);
+
+    @Test
+    public void usesCachedTokenAboutToExpireWhileRefreshingIt() throws Exception {
+        Path tokenFile = this.cache(new TokenManager.Token(OWNER, "cached", "refresh",
+            System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60)));
+        TokenManager tokenManager = new TokenManager(null, tokenFile, OWNER, 300, this::requestToken);
+
+        assertEquals("cached", tokenManager.getToken());
+
+        assertTrue("Not refreshed", this.requested.await(5, TimeUnit.SECONDS));
+        assertEquals("refresh", this.requests.get(0));
+    }
+
+    @Test
+    public void logsInWhenCachedTokenHasExpired() throws Exception {
+        Path tokenFile = this.cache(new TokenManager.Token(OWNER, "cached", "refresh",
+            System.currentTimeMillis() - 1));
+        TokenManager tokenManager = new TokenManager(null, tokenFile, OWNER, 300, this::requestToken);
+
+        assertEquals("new", tokenManager.getToken());
+        assertEquals(1, this.requests.size());
+        assertNull(this.requests.get(0));
+    }
+
+    @Test
+    public void ignoresCachedTokenOfAnotherOwner() throws Exception {
+        Path tokenFile = this.cache(new TokenManager.Token("http://localhost|other", "cached", "refresh",
+            Long.MAX_VALUE));
+        TokenManager tokenManager = new TokenManager(null, tokenFile, OWNER, 300, this::requestToken);
+
+        assertEquals("new", tokenManager.getToken());
+        assertNull(this.requests.get(0));
+    }
+
+    private TokenManager.Token requestToken(String refreshToken) {
+        this.requests.add(refreshToken);
+        this.requested.countDown();
+        return TokenManager.Token.of("new", "refresh", 3600L);
+    }
+
+    private Path cache(TokenManager.Token token) throws Exception {
+        Path tokenFile = this.folder.getRoot().toPath().resolve("token.json");
+        new ObjectMapper().writeValue(tokenFile.toFile(), token);
+        return tokenFile;
+    }
+}